@@ -10,4 +10,176 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Logo logo = new Logo();
+
+    private final CityImport cityImport = new CityImport();
+
+    private final TokenCache tokenCache = new TokenCache();
+
+    private final PasswordEncoder passwordEncoder = new PasswordEncoder();
+
+    public Logo getLogo() {
+        return logo;
+    }
+
+    public CityImport getCityImport() {
+        return cityImport;
+    }
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    public PasswordEncoder getPasswordEncoder() {
+        return passwordEncoder;
+    }
+
+    public static class Logo {
+
+        /**
+         * Maximum number of logo uploads written concurrently by a single node.
+         */
+        private int maxConcurrentUploads = 4;
+
+        /**
+         * Where logo content is stored.
+         */
+        private Storage storage = Storage.DATABASE;
+
+        /**
+         * Root directory of the {@link Storage#FILESYSTEM} storage.
+         */
+        private String storageDirectory = "data/logos";
+
+        /**
+         * Maximum width and height, in pixels, of the generated thumbnails.
+         */
+        private int thumbnailSize = 100;
+
+        public int getMaxConcurrentUploads() {
+            return maxConcurrentUploads;
+        }
+
+        public void setMaxConcurrentUploads(int maxConcurrentUploads) {
+            this.maxConcurrentUploads = maxConcurrentUploads;
+        }
+
+        public Storage getStorage() {
+            return storage;
+        }
+
+        public void setStorage(Storage storage) {
+            this.storage = storage;
+        }
+
+        public String getStorageDirectory() {
+            return storageDirectory;
+        }
+
+        public void setStorageDirectory(String storageDirectory) {
+            this.storageDirectory = storageDirectory;
+        }
+
+        public int getThumbnailSize() {
+            return thumbnailSize;
+        }
+
+        public void setThumbnailSize(int thumbnailSize) {
+            this.thumbnailSize = thumbnailSize;
+        }
+
+        public enum Storage {
+            DATABASE,
+            FILESYSTEM,
+        }
+    }
+
+    public static class CityImport {
+
+        /**
+         * Number of cities written per JDBC batch and per transaction.
+         */
+        private int chunkSize = 1000;
+
+        /**
+         * Maximum number of failed rows detailed in the import summary, all of them are counted.
+         */
+        private int maxReportedFailures = 100;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxReportedFailures() {
+            return maxReportedFailures;
+        }
+
+        public void setMaxReportedFailures(int maxReportedFailures) {
+            this.maxReportedFailures = maxReportedFailures;
+        }
+    }
+
+    public static class TokenCache {
+
+        /**
+         * Maximum number of verified JWT kept in memory, 0 to verify every token on each request.
+         */
+        private int maxSize = 10000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class PasswordEncoder {
+
+        /**
+         * Number of passwords hashed or checked at once, on threads separate from the request threads.
+         */
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Maximum number of passwords waiting for a thread, beyond which requests are rejected with 503.
+         */
+        private int queueCapacity = 32;
+
+        /**
+         * BCrypt log rounds of new hashes, each more doubles the cost. Passwords hashed with fewer rounds are
+         * hashed again on the next successful login.
+         */
+        private int strength = 10;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public void setStrength(int strength) {
+            this.strength = strength;
+        }
+    }
 }
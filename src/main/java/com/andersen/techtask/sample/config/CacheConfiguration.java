@@ -53,6 +53,8 @@ public class CacheConfiguration {
             createCache(cm, User.class.getName() + ".authorities");
             createCache(cm, City.class.getName());
             createCache(cm, City.class.getName() + ".countries");
+            createCache(cm, Country.class.getName());
+            createCache(cm, Country.class.getName() + ".cities");
         };
     }
 
@@ -1,5 +1,6 @@
 package com.andersen.techtask.sample.config;
 
+import com.andersen.techtask.sample.management.SecurityMetersService;
 import com.andersen.techtask.sample.security.AuthoritiesConstants;
 import com.andersen.techtask.sample.security.jwt.JWTConfigurer;
 import com.andersen.techtask.sample.security.jwt.TokenProvider;
@@ -13,19 +14,33 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.CorsFilter;
 import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
 import tech.jhipster.config.JHipsterProperties;
 
+import java.util.Map;
+
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
 @Import(SecurityProblemSupport.class)
 public class SecurityConfiguration {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
+    // Only the versioned logo URLs listed with the cities are public, for <img> tags and shared caches
+    private static final RequestMatcher VERSIONED_LOGO = new AndRequestMatcher(
+        new AntPathRequestMatcher("/api/cities/*/logo", HttpMethod.GET.name()),
+        request -> request.getParameter("v") != null
+    );
+
     private final JHipsterProperties jHipsterProperties;
 
     private final TokenProvider tokenProvider;
@@ -46,8 +61,15 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService) {
+        ApplicationProperties.PasswordEncoder properties = applicationProperties.getPasswordEncoder();
+        // Hashes made with another strength, higher or lower, are encoded again on the next successful login
+        BCryptPasswordEncoder bcrypt = new ExactStrengthBCryptPasswordEncoder(properties.getStrength());
+        // New hashes are prefixed with the id of their encoder, so that the algorithm can change later on
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        // Hashes stored before the prefix was used are all BCrypt hashes
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, properties.getThreads(), properties.getQueueCapacity(), securityMetersService);
     }
 
     @Bean
@@ -88,6 +110,7 @@ public class SecurityConfiguration {
             .antMatchers("/api/account/reset-password/init").permitAll()
             .antMatchers("/api/account/reset-password/finish").permitAll()
             .antMatchers("/api/admin/**").hasAuthority(AuthoritiesConstants.ADMIN)
+            .requestMatchers(VERSIONED_LOGO).permitAll()
             .antMatchers("/api/**").authenticated()
             .antMatchers("/management/health").permitAll()
             .antMatchers("/management/health/**").permitAll()
@@ -1,10 +1,16 @@
 package com.andersen.techtask.sample.domain;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
 import java.io.Serializable;
+import java.time.Instant;
 
 /**
  * A Operation.
@@ -12,26 +18,45 @@ import java.io.Serializable;
 @Entity
 @Table(name = "city")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(AuditingEntityListener.class)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class City implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // Ids are allocated by blocks of 50 from a table, so that inserts are batched unlike with an identity column
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cityIdGenerator")
+    @GenericGenerator(
+        name = "cityIdGenerator",
+        strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+        parameters = {
+            @Parameter(name = "sequence_name", value = "city_sequence"),
+            @Parameter(name = "force_table_use", value = "true"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo"),
+        }
+    )
     @Column(name = "id")
     private Long id;
 
     @Column(name = "name")
     private String name;
 
-    @Lob
-    @Column(name = "logo", columnDefinition = "LONGBLOB")
-    private byte[] logo;
-
+    // Set by reference when a city is written, and then only serialized as its id rather than loaded
     @ManyToOne
+    @JsonSerialize(using = LazyReferenceSerializer.class)
     private Country country;
 
+    // Incremented by each update, which fails if the row was updated since it was read
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @LastModifiedDate
+    @Column(name = "last_modified_date")
+    private Instant lastModifiedDate;
+
     public Long getId() {
         return this.id;
     }
@@ -54,14 +79,6 @@ public class City implements Serializable {
         this.name = name;
     }
 
-    public byte[] getLogo() {
-        return logo;
-    }
-
-    public void setLogo(byte[] logo) {
-        this.logo = logo;
-    }
-
     public Country getCountry() {
         return country;
     }
@@ -75,6 +92,22 @@ public class City implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
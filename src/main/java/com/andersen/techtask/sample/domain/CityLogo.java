@@ -0,0 +1,121 @@
+package com.andersen.techtask.sample.domain;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * The logo of a {@link City}.
+ * <p>
+ * Kept in its own table so that loading, listing and searching cities never reads blob pages.
+ * It shares its primary key with the owning city and is only ever loaded on demand.
+ * The content itself is kept by the logo storage, under its {@code sha256} hash, along with a PNG thumbnail
+ * generated in the background once the logo is stored.
+ */
+@Entity
+@Table(name = "city_logo")
+public class CityLogo implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "city_id")
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "city_id")
+    private City city;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Column(name = "sha256", length = 64, nullable = false)
+    private String sha256;
+
+    @Column(name = "thumbnail_sha256", length = 64)
+    private String thumbnailSha256;
+
+    @Column(name = "thumbnail_size")
+    private Long thumbnailSize;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public City getCity() {
+        return city;
+    }
+
+    public void setCity(City city) {
+        this.city = city;
+    }
+
+    public CityLogo city(City city) {
+        this.setCity(city);
+        return this;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getThumbnailSha256() {
+        return thumbnailSha256;
+    }
+
+    public void setThumbnailSha256(String thumbnailSha256) {
+        this.thumbnailSha256 = thumbnailSha256;
+    }
+
+    public Long getThumbnailSize() {
+        return thumbnailSize;
+    }
+
+    public void setThumbnailSize(Long thumbnailSize) {
+        this.thumbnailSize = thumbnailSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CityLogo)) {
+            return false;
+        }
+        return id != null && id.equals(((CityLogo) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,22 @@
+package com.andersen.techtask.sample.domain;
+
+/**
+ * Published when a country is created, updated or deleted.
+ */
+public class CountryChangedEvent {
+
+    private final Long countryId;
+
+    public CountryChangedEvent(Long countryId) {
+        this.countryId = countryId;
+    }
+
+    public Long getCountryId() {
+        return countryId;
+    }
+
+    @Override
+    public String toString() {
+        return "CountryChangedEvent{countryId=" + countryId + "}";
+    }
+}
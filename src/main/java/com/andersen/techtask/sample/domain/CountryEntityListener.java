@@ -0,0 +1,29 @@
+package com.andersen.techtask.sample.domain;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener publishing a {@link CountryChangedEvent} on every write of a {@link Country}, whatever the
+ * code path, so that the in-memory copies of the countries are never left stale.
+ * <p>
+ * Instantiated by Hibernate through the Spring bean container.
+ */
+public class CountryEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public CountryEntityListener(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCountryChanged(Country country) {
+        applicationEventPublisher.publishEvent(new CountryChangedEvent(country.getId()));
+    }
+}
@@ -0,0 +1,73 @@
+package com.andersen.techtask.sample.domain;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Aggregates of a {@link Country}, maintained along with its cities so that they are read without scanning them.
+ * <p>
+ * {@code cityCount} is the number of cities of the country. Countries without any city since the aggregate was
+ * introduced may have no row.
+ */
+@Entity
+@Table(name = "country_stats")
+public class CountryStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "country_id")
+    private Long countryId;
+
+    @Column(name = "city_count", nullable = false)
+    private Long cityCount;
+
+    public CountryStats() {}
+
+    public CountryStats(Long countryId, long cityCount) {
+        this.countryId = countryId;
+        this.cityCount = cityCount;
+    }
+
+    public Long getCountryId() {
+        return countryId;
+    }
+
+    public void setCountryId(Long countryId) {
+        this.countryId = countryId;
+    }
+
+    public Long getCityCount() {
+        return cityCount;
+    }
+
+    public void setCityCount(Long cityCount) {
+        this.cityCount = cityCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CountryStats)) {
+            return false;
+        }
+        return countryId != null && countryId.equals(((CountryStats) o).countryId);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CountryStats{" +
+            "countryId=" + countryId +
+            ", cityCount=" + cityCount +
+            "}";
+    }
+}
@@ -0,0 +1,34 @@
+package com.andersen.techtask.sample.domain;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+
+import java.io.IOException;
+
+/**
+ * Serializes a reference to an entity which was never loaded as its {@code id} only, and a loaded one as a whole.
+ * <p>
+ * Meant for references set by id without selecting the entity, which would otherwise be serialized as {@code null},
+ * without loading them just to write the response.
+ */
+public class LazyReferenceSerializer extends JsonSerializer<Object> {
+
+    @Override
+    public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        Object entity = value;
+        if (value instanceof HibernateProxy) {
+            LazyInitializer initializer = ((HibernateProxy) value).getHibernateLazyInitializer();
+            if (initializer.isUninitialized()) {
+                gen.writeStartObject();
+                gen.writeObjectField("id", initializer.getIdentifier());
+                gen.writeEndObject();
+                return;
+            }
+            entity = initializer.getImplementation();
+        }
+        serializers.findValueSerializer(entity.getClass()).serialize(entity, gen, serializers);
+    }
+}
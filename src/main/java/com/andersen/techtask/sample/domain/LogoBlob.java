@@ -0,0 +1,110 @@
+package com.andersen.techtask.sample.domain;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.sql.Blob;
+
+/**
+ * Logo content, stored once per distinct SHA-256 hash and shared by all the logos having the same content.
+ * <p>
+ * {@code refCount} is the number of references to this content; unreferenced content is removed by a periodic
+ * sweep. {@code data} is only used by the database storage, other storages keep the bytes elsewhere.
+ */
+@Entity
+@Table(name = "logo_blob")
+public class LogoBlob implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Lob
+    @Column(name = "data", columnDefinition = "LONGBLOB")
+    private Blob data;
+
+    @Transient
+    private boolean isPersisted;
+
+    public LogoBlob() {}
+
+    public LogoBlob(String sha256, long size) {
+        this.sha256 = sha256;
+        this.size = size;
+        this.refCount = 1;
+    }
+
+    @Override
+    public String getId() {
+        return this.sha256;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    public Blob getData() {
+        return data;
+    }
+
+    public void setData(Blob data) {
+        this.data = data;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LogoBlob)) {
+            return false;
+        }
+        return sha256 != null && sha256.equals(((LogoBlob) o).sha256);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+}
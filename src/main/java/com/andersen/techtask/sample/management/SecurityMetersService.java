@@ -2,6 +2,8 @@ package com.andersen.techtask.sample.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +15,42 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_DESCRIPTION = "Indicates lookups of the tokens presented by the clients in the cache of verified tokens.";
+    public static final String TOKEN_CACHE_METER_BASE_UNIT = "lookups";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+
+    public static final String PASSWORD_ENCODER_QUEUE_WAIT_METER_NAME = "security.password-encoder.queue-wait";
+    public static final String PASSWORD_ENCODER_QUEUE_WAIT_METER_DESCRIPTION = "Indicates the time passwords wait for a thread to be hashed or checked.";
+
+    public static final String PASSWORD_ENCODER_REJECTED_METER_NAME = "security.password-encoder.rejected";
+    public static final String PASSWORD_ENCODER_REJECTED_METER_DESCRIPTION = "Indicates password hashes or checks rejected because too many were waiting.";
+    public static final String PASSWORD_ENCODER_REJECTED_METER_BASE_UNIT = "errors";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
+    private final Timer passwordEncoderQueueWaitTimer;
+    private final Counter passwordEncoderRejectedCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+        this.passwordEncoderQueueWaitTimer =
+            Timer.builder(PASSWORD_ENCODER_QUEUE_WAIT_METER_NAME).description(PASSWORD_ENCODER_QUEUE_WAIT_METER_DESCRIPTION).register(registry);
+        this.passwordEncoderRejectedCounter =
+            Counter
+                .builder(PASSWORD_ENCODER_REJECTED_METER_NAME)
+                .baseUnit(PASSWORD_ENCODER_REJECTED_METER_BASE_UNIT)
+                .description(PASSWORD_ENCODER_REJECTED_METER_DESCRIPTION)
+                .register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +61,14 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(TOKEN_CACHE_METER_NAME)
+            .baseUnit(TOKEN_CACHE_METER_BASE_UNIT)
+            .description(TOKEN_CACHE_METER_DESCRIPTION)
+            .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +84,20 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public void trackPasswordEncoderQueueWait(long nanos) {
+        this.passwordEncoderQueueWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordEncoderRejected() {
+        this.passwordEncoderRejectedCounter.increment();
+    }
 }
@@ -0,0 +1,42 @@
+package com.andersen.techtask.sample.repository;
+
+import com.andersen.techtask.sample.domain.CityLogo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the {@link CityLogo} entity.
+ */
+@Repository
+public interface CityLogoRepository extends JpaRepository<CityLogo, Long> {
+
+    Optional<Summary> findSummaryById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CityLogo> findWithLockById(Long id);
+
+    List<Summary> findSummaryByThumbnailSha256IsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * The metadata of a {@link CityLogo}, selected without touching the blob column.
+     */
+    interface Summary {
+        Long getId();
+
+        String getContentType();
+
+        Long getSize();
+
+        String getSha256();
+
+        String getThumbnailSha256();
+
+        Long getThumbnailSize();
+    }
+}
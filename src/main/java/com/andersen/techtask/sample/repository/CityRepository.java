@@ -4,15 +4,83 @@ import com.andersen.techtask.sample.domain.City;
 import com.andersen.techtask.sample.domain.Country;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface CityRepository extends JpaRepository<City, Long> {
-    Page<City> findAllByCountry(Pageable pageable, Country country);
-    List<City> findByNameContainingIgnoreCase(String name);
+public interface CityRepository extends JpaRepository<City, Long>, CityRepositoryWithMultiLoad {
+    /**
+     * Selects a {@link CitySummary} with its country name and logo hash, without loading any entity. The country join
+     * is aliased {@code country} so that sorting by {@code country.name} uses it rather than an implicit inner join.
+     */
+    String SELECT_CITY_SUMMARY =
+        "select new com.andersen.techtask.sample.repository.CitySummary(c.id, c.name, country.id, country.name, logo.sha256) " +
+        "from City c left join c.country country left join CityLogo logo on logo.id = c.id";
 
-    List<City> findByCountryNameContainingIgnoreCase(String countryName);
+    @Query(value = SELECT_CITY_SUMMARY + " where c.country = :country", countQuery = "select count(c) from City c where c.country = :country")
+    Page<CitySummary> findAllByCountry(Pageable pageable, @Param("country") Country country);
+
+    @Query(value = SELECT_CITY_SUMMARY, countQuery = "select count(c) from City c")
+    Page<CitySummary> findAllSummaries(Pageable pageable);
+
+    @Query(SELECT_CITY_SUMMARY + " where c.id > :afterId order by c.id")
+    List<CitySummary> findSummariesByIdAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(SELECT_CITY_SUMMARY + " where c.name >= :name and (c.name > :name or c.id > :afterId) order by c.name, c.id")
+    List<CitySummary> findSummariesByNameAfter(@Param("name") String name, @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Null names sort first, so the cities after a city without name are the remaining ones without name and all
+     * the named ones.
+     */
+    @Query(SELECT_CITY_SUMMARY + " where (c.name is null and c.id > :afterId) or c.name is not null order by c.name, c.id")
+    List<CitySummary> findSummariesByNullNameAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Streams all the cities in id order. With a fetch size of {@link Integer#MIN_VALUE}, the MySQL driver reads the
+     * rows one at a time instead of loading the whole result set, so the stream must be read in a transaction and
+     * closed before the connection is used again.
+     */
+    @Query(SELECT_CITY_SUMMARY + " order by c.id")
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "false"),
+        }
+    )
+    Stream<CitySummary> streamAllSummaries();
+
+    @Query(SELECT_CITY_SUMMARY + " where c.id in :ids")
+    List<CitySummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.id as id, c.name as name from City c where c.id > :afterId order by c.id")
+    List<IdAndName> findIdAndNameByIdAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(SELECT_CITY_SUMMARY + " where lower(c.name) like lower(concat('%', :#{escape(#name)}, '%')) escape :#{escapeCharacter()}")
+    Slice<CitySummary> findSummariesByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+
+    @Query(SELECT_CITY_SUMMARY + " where c.name like concat(:#{escape(#prefix)}, '%') escape :#{escapeCharacter()} order by length(c.name), c.name")
+    List<CitySummary> findSummariesByNameStartingWith(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query(SELECT_CITY_SUMMARY + " where c.country.id in :countryIds")
+    Slice<CitySummary> findSummariesByCountryIdIn(@Param("countryIds") Collection<Long> countryIds, Pageable pageable);
+
+    /**
+     * The id and name of a {@link City}, used to build in-memory indexes.
+     */
+    interface IdAndName {
+        Long getId();
+
+        String getName();
+    }
 }
@@ -0,0 +1,19 @@
+package com.andersen.techtask.sample.repository;
+
+import com.andersen.techtask.sample.domain.City;
+
+import java.util.List;
+
+/**
+ * Loading of several {@link City} by id through the second level cache.
+ */
+public interface CityRepositoryWithMultiLoad {
+    /**
+     * Find the cities with the given ids. Cities in the second level cache are read from it, the others are selected
+     * in a single query.
+     *
+     * @param ids the ids of the cities.
+     * @return the existing cities, in the order of their ids.
+     */
+    List<City> findAllByIdInOrder(List<Long> ids);
+}
@@ -0,0 +1,36 @@
+package com.andersen.techtask.sample.repository;
+
+import com.andersen.techtask.sample.domain.City;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class CityRepositoryWithMultiLoadImpl implements CityRepositoryWithMultiLoad {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<City> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // A batch as large as the ids, so that all the cache misses are selected by the same IN query
+        return entityManager
+            .unwrap(Session.class)
+            .byMultipleIds(City.class)
+            .with(CacheMode.NORMAL)
+            .enableSessionCheck(true)
+            .enableOrderedReturn(true)
+            .withBatchSize(ids.size())
+            .multiLoad(ids)
+            .stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,60 @@
+package com.andersen.techtask.sample.repository;
+
+import com.andersen.techtask.sample.domain.City;
+
+/**
+ * The fields of a {@link City} shown in lists and search results, selected in a single query with the name of its
+ * country and the hash of its logo, without loading any entity.
+ */
+public final class CitySummary {
+
+    private final Long id;
+
+    private final String name;
+
+    private final Long countryId;
+
+    private final String countryName;
+
+    private final String logoHash;
+
+    public CitySummary(Long id, String name, Long countryId, String countryName, String logoHash) {
+        this.id = id;
+        this.name = name;
+        this.countryId = countryId;
+        this.countryName = countryName;
+        this.logoHash = logoHash;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getCountryId() {
+        return countryId;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+
+    public String getLogoHash() {
+        return logoHash;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CitySummary{" +
+            "id=" + id +
+            ", name='" + name + '\'' +
+            ", countryId=" + countryId +
+            ", countryName='" + countryName + '\'' +
+            ", logoHash='" + logoHash + '\'' +
+            "}";
+    }
+}
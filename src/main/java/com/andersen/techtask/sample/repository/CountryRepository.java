@@ -4,6 +4,7 @@ import com.andersen.techtask.sample.domain.Country;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +18,16 @@ public interface CountryRepository extends JpaRepository<Country, Long> {
     @Override
     Page<Country> findAll(Pageable pageable);
 
-    Country findCountryById(Long id);
+    @Query("select c.id as id, c.name as name from Country c order by c.name")
+    List<IdAndName> findAllIdAndName();
+
+    /**
+     * The id and name of a {@link Country}, used to build in-memory indexes.
+     */
+    interface IdAndName {
+        Long getId();
+
+        String getName();
+    }
 
 }
@@ -0,0 +1,53 @@
+package com.andersen.techtask.sample.repository;
+
+import com.andersen.techtask.sample.domain.CountryStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link CountryStats} entity.
+ * <p>
+ * Counts are only changed through insert or update statements, so the row lock they take serializes concurrent writers
+ * of the same country and no increment is lost.
+ */
+@Repository
+public interface CountryStatsRepository extends JpaRepository<CountryStats, Long> {
+
+    /**
+     * Adds to the city count of a country, inserting its row if it doesn't exist yet. A concurrent insert of the same
+     * row waits until the first one commits or rolls back, then adds to it.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        value = "insert into country_stats (country_id, city_count) values (:countryId, :delta) " +
+        "on duplicate key update city_count = city_count + :delta",
+        nativeQuery = true
+    )
+    // Only the country_stats table is written, so the second level cache regions of other entities are kept
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "country_stats"))
+    int addCityCount(@Param("countryId") Long countryId, @Param("delta") long delta);
+
+    @Query(
+        "select country.id as countryId, country.name as countryName, coalesce(s.cityCount, 0L) as cityCount " +
+        "from Country country left join CountryStats s on s.countryId = country.id order by country.name, country.id"
+    )
+    List<CountryCityCount> findAllCountryCityCounts();
+
+    /**
+     * The number of cities of a country, zero if no {@link CountryStats} row exists yet.
+     */
+    interface CountryCityCount {
+        Long getCountryId();
+
+        String getCountryName();
+
+        Long getCityCount();
+    }
+}
@@ -0,0 +1,63 @@
+package com.andersen.techtask.sample.repository;
+
+import com.andersen.techtask.sample.domain.LogoBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.sql.Blob;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the {@link LogoBlob} entity.
+ * <p>
+ * Reference counts are only changed through insert or update statements, so the row lock they take serializes
+ * concurrent writers of the same content without ever loading the blob.
+ */
+@Repository
+public interface LogoBlobRepository extends JpaRepository<LogoBlob, String> {
+
+    /**
+     * Inserts the row of new content without its data, or adds a reference to the content if its row already exists.
+     * A concurrent insert of the same content waits until the first one commits or rolls back, so exactly one
+     * transaction inserts the row.
+     *
+     * @return {@code 1} if the row was inserted, {@code 2} if a reference was added to an existing row.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        value = "insert into logo_blob (sha256, size, ref_count) values (:sha256, :size, 1) " +
+        "on duplicate key update ref_count = ref_count + 1",
+        nativeQuery = true
+    )
+    // Only the logo_blob table is written, so the second level cache regions of other entities are kept
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "logo_blob"))
+    int insertOrRetain(@Param("sha256") String sha256, @Param("size") long size);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LogoBlob b set b.refCount = b.refCount - 1 where b.sha256 = :sha256 and b.refCount > 0")
+    int release(@Param("sha256") String sha256);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from LogoBlob b where b.sha256 = :sha256 and b.refCount = 0")
+    int deleteUnreferenced(@Param("sha256") String sha256);
+
+    @Query("select b.sha256 from LogoBlob b where b.refCount = 0")
+    List<String> findUnreferencedSha256(Pageable pageable);
+
+    @Query("select b.sha256 from LogoBlob b where b.data is not null and b.sha256 > :after order by b.sha256")
+    List<String> findSha256WithDataAfter(@Param("after") String after, Pageable pageable);
+
+    @Query("select b.data from LogoBlob b where b.sha256 = :sha256")
+    Optional<Blob> findDataBySha256(@Param("sha256") String sha256);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LogoBlob b set b.data = null where b.sha256 = :sha256")
+    int clearData(@Param("sha256") String sha256);
+}
@@ -0,0 +1,97 @@
+package com.andersen.techtask.sample.security;
+
+import com.andersen.techtask.sample.management.SecurityMetersService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A {@link PasswordEncoder} running a slow delegate, like BCrypt, on a dedicated pool of threads.
+ * <p>
+ * Hashing is CPU bound: a burst of logins on the request threads would use all the CPU and all the request threads,
+ * starving cheap requests. Here at most {@code threads} passwords are hashed at once, at most {@code queueCapacity}
+ * wait for their turn, and any other is rejected at once with a {@link PasswordEncoderLimitExceededException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final SecurityMetersService securityMetersService;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, SecurityMetersService securityMetersService) {
+        this.delegate = delegate;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-encoder-");
+        threadFactory.setDaemon(true);
+        this.executor =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        this.securityMetersService = securityMetersService;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future =
+                executor.submit(() -> {
+                    securityMetersService.trackPasswordEncoderQueueWait(System.nanoTime() - submitted);
+                    return task.call();
+                });
+        } catch (RejectedExecutionException e) {
+            securityMetersService.trackPasswordEncoderRejected();
+            throw new PasswordEncoderLimitExceededException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the password encoder", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
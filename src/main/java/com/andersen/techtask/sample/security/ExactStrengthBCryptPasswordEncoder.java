@@ -0,0 +1,33 @@
+package com.andersen.techtask.sample.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * A {@link BCryptPasswordEncoder} asking to upgrade any hash made with another strength than its own.
+ * <p>
+ * {@link BCryptPasswordEncoder#upgradeEncoding(String)} only upgrades hashes with fewer log rounds, so lowering the
+ * strength to make logins cheaper would keep every existing hash at the higher cost. Here those hashes are encoded
+ * again on the next successful login too.
+ */
+public class ExactStrengthBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_STRENGTH = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public ExactStrengthBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (super.upgradeEncoding(encodedPassword)) {
+            return true;
+        }
+        Matcher matcher = encodedPassword != null ? BCRYPT_STRENGTH.matcher(encodedPassword) : null;
+        return matcher != null && matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -0,0 +1,96 @@
+package com.andersen.techtask.sample.security;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Canonical {@link GrantedAuthority} instances, shared by all the authentications instead of being created for each of
+ * them.
+ * <p>
+ * Authority names only come from the database or from signed tokens, so there are only a few of them: each is
+ * interned on first use, the ones of {@link AuthoritiesConstants} from the start.
+ */
+public final class GrantedAuthorities {
+
+    /**
+     * Maximum number of distinct authority claims whose parsed list is kept.
+     */
+    private static final int MAX_CLAIMS = 1024;
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<String, List<GrantedAuthority>> CLAIMS = new ConcurrentHashMap<>();
+
+    static {
+        for (String name : new String[] {
+            AuthoritiesConstants.ADMIN,
+            AuthoritiesConstants.USER,
+            AuthoritiesConstants.EDITOR,
+            AuthoritiesConstants.ANONYMOUS,
+        }) {
+            AUTHORITIES.put(name, new SimpleGrantedAuthority(name));
+        }
+    }
+
+    private GrantedAuthorities() {}
+
+    /**
+     * Get the canonical authority of the given name.
+     *
+     * @param name the name of the authority.
+     * @return the authority, always the same instance for the same name.
+     */
+    public static GrantedAuthority of(String name) {
+        GrantedAuthority authority = AUTHORITIES.get(name);
+        return authority != null ? authority : AUTHORITIES.computeIfAbsent(name, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * Parse a comma separated list of authority names, ignoring blank names and the blanks around names.
+     *
+     * @param claim the list of names.
+     * @return the authorities, as an immutable list shared by the callers parsing the same claim.
+     */
+    public static List<GrantedAuthority> parse(String claim) {
+        List<GrantedAuthority> authorities = CLAIMS.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = Collections.unmodifiableList(split(claim));
+        if (CLAIMS.size() < MAX_CLAIMS) {
+            List<GrantedAuthority> previous = CLAIMS.putIfAbsent(claim, authorities);
+            return previous != null ? previous : authorities;
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> split(String claim) {
+        List<GrantedAuthority> authorities = new ArrayList<>(4);
+        int length = claim.length();
+        int start = 0;
+        while (start <= length) {
+            int end = claim.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int from = start;
+            int to = end;
+            while (from < to && Character.isWhitespace(claim.charAt(from))) {
+                from++;
+            }
+            while (to > from && Character.isWhitespace(claim.charAt(to - 1))) {
+                to--;
+            }
+            if (from < to) {
+                authorities.add(of(claim.substring(from, to)));
+            }
+            start = end + 1;
+        }
+        return authorities;
+    }
+}
@@ -0,0 +1,13 @@
+package com.andersen.techtask.sample.security;
+
+/**
+ * This exception is thrown when passwords can't be hashed or checked because too many of them are already waiting.
+ */
+public class PasswordEncoderLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordEncoderLimitExceededException() {
+        super("Too many concurrent password checks, try again later");
+    }
+}
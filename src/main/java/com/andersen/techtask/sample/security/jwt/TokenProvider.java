@@ -1,6 +1,8 @@
 package com.andersen.techtask.sample.security.jwt;
 
+import com.andersen.techtask.sample.config.ApplicationProperties;
 import com.andersen.techtask.sample.management.SecurityMetersService;
+import com.andersen.techtask.sample.security.GrantedAuthorities;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -14,7 +16,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
@@ -39,7 +40,13 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final VerifiedTokenCache tokenCache;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -60,6 +67,8 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        int tokenCacheMaxSize = applicationProperties.getTokenCache().getMaxSize();
+        this.tokenCache = tokenCacheMaxSize > 0 ? new VerifiedTokenCache(tokenCacheMaxSize) : null;
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -82,25 +91,56 @@ public class TokenProvider {
             .compact();
     }
 
+    /**
+     * Validate the token and build its authentication, with a single signature verification and claims parsing.
+     * <p>
+     * The principals of tokens already verified are read from a cache until the tokens expire. Each call still returns
+     * a new authentication, so that a request can't change the authentication of another one.
+     *
+     * @param token the JWT.
+     * @return the authentication, or empty if the token isn't valid.
+     */
+    public Optional<Authentication> getValidAuthentication(String token) {
+        if (tokenCache == null) {
+            return parseValidClaims(token).map(claims -> getAuthentication(getPrincipal(claims), token));
+        }
+        User cached = tokenCache.get(token, System.currentTimeMillis());
+        if (cached != null) {
+            this.securityMetersService.trackTokenCacheHit();
+            return Optional.of(getAuthentication(cached, token));
+        }
+        this.securityMetersService.trackTokenCacheMiss();
+        return parseValidClaims(token)
+            .map(claims -> {
+                User principal = getPrincipal(claims);
+                if (claims.getExpiration() != null) {
+                    tokenCache.put(token, principal, claims.getExpiration().getTime());
+                }
+                return getAuthentication(principal, token);
+            });
+    }
+
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return getAuthentication(getPrincipal(jwtParser.parseClaimsJws(token).getBody()), token);
+    }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+    public boolean validateToken(String authToken) {
+        return parseValidClaims(authToken).isPresent();
+    }
 
-        User principal = new User(claims.getSubject(), "", authorities);
+    private static User getPrincipal(Claims claims) {
+        List<GrantedAuthority> authorities = GrantedAuthorities.parse(claims.get(AUTHORITIES_KEY).toString());
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return new User(claims.getSubject(), "", authorities);
     }
 
-    public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+    private static Authentication getAuthentication(User principal, String token) {
+        return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+    }
 
-            return true;
+    private Optional<Claims> parseValidClaims(String authToken) {
+        try {
+            return Optional.of(jwtParser.parseClaimsJws(authToken).getBody());
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +161,6 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
     }
 }
@@ -0,0 +1,119 @@
+package com.andersen.techtask.sample.security.jwt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * A bounded cache of the principals of already verified tokens, keyed by the SHA-256 digest of the token so that
+ * the tokens themselves aren't kept as keys.
+ * <p>
+ * Entries expire with their token, and the least recently used ones are evicted once the cache is full. The cache is
+ * split in segments locked independently, so that concurrent requests rarely wait for each other.
+ */
+final class VerifiedTokenCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * @param maxSize the maximum number of tokens in the cache, rounded up to a multiple of the number of segments.
+     */
+    VerifiedTokenCache(int maxSize) {
+        int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * @param token the token.
+     * @param now the current time, in milliseconds since the epoch.
+     * @return the principal of the token, or {@code null} if it isn't cached or has expired.
+     */
+    User get(String token, long now) {
+        ByteBuffer key = digest(token);
+        Segment segment = segment(key);
+        synchronized (segment) {
+            CachedToken entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now >= entry.expiresAt) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.principal;
+        }
+    }
+
+    /**
+     * @param token the verified token.
+     * @param principal the principal of the token.
+     * @param expiresAt the expiration time of the token, in milliseconds since the epoch.
+     */
+    void put(String token, User principal, long expiresAt) {
+        ByteBuffer key = digest(token);
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, new CachedToken(principal, expiresAt));
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segment(ByteBuffer key) {
+        // The digest is uniformly distributed, any of its bytes spreads the keys evenly
+        return segments[key.get(0) & (SEGMENTS - 1)];
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class CachedToken {
+
+        private final User principal;
+
+        private final long expiresAt;
+
+        private CachedToken(User principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<ByteBuffer, CachedToken> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, CachedToken> eldest) {
+            return size() > capacity;
+        }
+    }
+}
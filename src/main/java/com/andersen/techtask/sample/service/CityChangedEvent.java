@@ -0,0 +1,29 @@
+package com.andersen.techtask.sample.service;
+
+/**
+ * Published when a city is created or updated.
+ */
+public class CityChangedEvent {
+
+    private final Long cityId;
+
+    private final String name;
+
+    public CityChangedEvent(Long cityId, String name) {
+        this.cityId = cityId;
+        this.name = name;
+    }
+
+    public Long getCityId() {
+        return cityId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "CityChangedEvent{cityId=" + cityId + ", name='" + name + "'}";
+    }
+}
@@ -0,0 +1,124 @@
+package com.andersen.techtask.sample.service;
+
+import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.repository.CityRepository;
+import com.andersen.techtask.sample.repository.CitySummary;
+import com.andersen.techtask.sample.service.dto.CityDTO;
+import com.andersen.techtask.sample.service.mapper.CityMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Service class exporting all the {@link City}.
+ * <p>
+ * Cities are read from a forward-only result set as {@link CitySummary} projections, which never enter the
+ * persistence context, and written as they are read: the memory used doesn't depend on the number of cities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CityExportService {
+
+    private final Logger log = LoggerFactory.getLogger(CityExportService.class);
+
+    private static final String CSV_HEADER = "id,name,countryId,countryName,logoHash";
+
+    private final CityRepository cityRepository;
+
+    private final CityMapper cityMapper;
+
+    private final ObjectWriter cityWriter;
+
+    public CityExportService(CityRepository cityRepository, CityMapper cityMapper, ObjectMapper objectMapper) {
+        this.cityRepository = cityRepository;
+        this.cityMapper = cityMapper;
+        this.cityWriter = objectMapper.writerFor(CityDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write all the cities as newline delimited JSON, one {@link CityDTO} per line.
+     *
+     * @param out the stream to write to, left open.
+     * @throws IOException if the cities couldn't be written.
+     */
+    public void exportNdjson(OutputStream out) throws IOException {
+        log.debug("Request to export all Cities as NDJSON");
+        try (JsonGenerator generator = cityWriter.getFactory().createGenerator(out); Stream<CitySummary> cities = cityRepository.streamAllSummaries()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Values are separated by the newline written after each of them
+            generator.setRootValueSeparator(null);
+            cities.forEach(city -> {
+                try {
+                    cityWriter.writeValue(generator, cityMapper.citySummaryToCityDTO(city));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Write all the cities as CSV, with a header line. The {@code name} and {@code countryId} columns are the ones
+     * read back by the bulk import.
+     *
+     * @param out the stream to write to, left open.
+     * @throws IOException if the cities couldn't be written.
+     */
+    public void exportCsv(OutputStream out) throws IOException {
+        log.debug("Request to export all Cities as CSV");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<CitySummary> cities = cityRepository.streamAllSummaries()) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            cities.forEach(city -> {
+                try {
+                    writer.write(String.valueOf(city.getId()));
+                    writer.write(',');
+                    writeCsvValue(writer, city.getName());
+                    writer.write(',');
+                    writeCsvValue(writer, city.getCountryId() != null ? city.getCountryId().toString() : null);
+                    writer.write(',');
+                    writeCsvValue(writer, city.getCountryName());
+                    writer.write(',');
+                    writeCsvValue(writer, city.getLogoHash());
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf(';') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,216 @@
+package com.andersen.techtask.sample.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the rows of a city import one line at a time, so that the input is never held in memory.
+ * <p>
+ * Rows which can't be parsed are returned with an error rather than thrown, so that the import goes on with the
+ * next line.
+ */
+abstract class CityImportReader {
+
+    private final BufferedReader reader;
+
+    private long line;
+
+    private CityImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * A reader of CSV with a header line, separated by commas or semicolons. The {@code name} column is required,
+     * the country is read from a {@code countryId} or {@code country_id} column, other columns are ignored.
+     * Values may be quoted, with quotes doubled inside quoted values.
+     */
+    static CityImportReader csv(BufferedReader reader) {
+        return new Csv(reader);
+    }
+
+    /**
+     * A reader of newline delimited JSON objects, with a {@code name} and a {@code countryId}.
+     */
+    static CityImportReader ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new Ndjson(reader, objectMapper);
+    }
+
+    /**
+     * @return the next row, or {@code null} at the end of the input. Blank lines are skipped.
+     * @throws IOException if the input couldn't be read.
+     */
+    Row next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            Row row = text.isBlank() ? null : parse(line, text);
+            if (row != null) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the row of the given line, or {@code null} if the line holds no row, like a header.
+     */
+    abstract Row parse(long line, String text);
+
+    static final class Row {
+
+        final long line;
+
+        final String name;
+
+        final Long countryId;
+
+        final String error;
+
+        private Row(long line, String name, Long countryId, String error) {
+            this.line = line;
+            this.name = name;
+            this.countryId = countryId;
+            this.error = error;
+        }
+
+        static Row of(long line, String name, Long countryId) {
+            return new Row(line, name, countryId, null);
+        }
+
+        static Row failed(long line, String error) {
+            return new Row(line, null, null, error);
+        }
+    }
+
+    private static final class Csv extends CityImportReader {
+
+        private boolean headerRead;
+
+        private char separator;
+
+        private int nameColumn = -1;
+
+        private int countryColumn = -1;
+
+        private Csv(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        Row parse(long line, String text) {
+            if (!headerRead) {
+                headerRead = true;
+                // Spreadsheets may save UTF-8 with a byte order mark
+                String columns = text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+                separator = columns.indexOf(';') >= 0 ? ';' : ',';
+                List<String> header = split(columns);
+                if (header == null) {
+                    return Row.failed(line, "Invalid header");
+                }
+                for (int i = 0; i < header.size(); i++) {
+                    String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+                    if ("name".equals(column)) {
+                        nameColumn = i;
+                    } else if ("countryid".equals(column) || "country_id".equals(column)) {
+                        countryColumn = i;
+                    }
+                }
+                return nameColumn < 0 ? Row.failed(line, "Missing name column in header") : null;
+            }
+            if (nameColumn < 0) {
+                return Row.failed(line, "Missing name column in header");
+            }
+            List<String> values = split(text);
+            if (values == null) {
+                return Row.failed(line, "Unterminated quoted value");
+            }
+            String name = nameColumn < values.size() ? values.get(nameColumn) : null;
+            String country = countryColumn >= 0 && countryColumn < values.size() ? values.get(countryColumn).trim() : "";
+            if (country.isEmpty()) {
+                return Row.of(line, name, null);
+            }
+            try {
+                return Row.of(line, name, Long.valueOf(country));
+            } catch (NumberFormatException e) {
+                return Row.failed(line, "Invalid country id: " + country);
+            }
+        }
+
+        /**
+         * @return the values of the line, or {@code null} if a quoted value isn't terminated.
+         */
+        private List<String> split(String text) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == separator) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+
+    private static final class Ndjson extends CityImportReader {
+
+        private final ObjectMapper objectMapper;
+
+        private Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Row parse(long line, String text) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return Row.failed(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return Row.failed(line, "Not a JSON object");
+            }
+            JsonNode name = node.get("name");
+            JsonNode countryId = node.get("countryId");
+            if (name != null && !name.isNull() && !name.isTextual()) {
+                return Row.failed(line, "Invalid name: " + name);
+            }
+            if (countryId != null && !countryId.isNull() && !(countryId.isIntegralNumber() && countryId.canConvertToLong())) {
+                return Row.failed(line, "Invalid country id: " + countryId);
+            }
+            return Row.of(
+                line,
+                name != null && !name.isNull() ? name.textValue() : null,
+                countryId != null && !countryId.isNull() ? countryId.longValue() : null
+            );
+        }
+    }
+}
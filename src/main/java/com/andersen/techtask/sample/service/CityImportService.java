@@ -0,0 +1,180 @@
+package com.andersen.techtask.sample.service;
+
+import com.andersen.techtask.sample.config.ApplicationProperties;
+import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.repository.CityRepository;
+import com.andersen.techtask.sample.repository.CountryRepository;
+import com.andersen.techtask.sample.service.dto.CityImportSummaryDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Service class importing {@link City} in bulk.
+ * <p>
+ * The input is read line by line and written by chunks, each chunk being a single JDBC batch in its own transaction:
+ * the memory used doesn't depend on the size of the input, and a failed chunk only rejects its own rows.
+ */
+@Service
+public class CityImportService {
+
+    private final Logger log = LoggerFactory.getLogger(CityImportService.class);
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final CityRepository cityRepository;
+
+    private final CountryRepository countryRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CountryService countryService;
+
+    private final CountryStatsService countryStatsService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final int chunkSize;
+
+    private final int maxReportedFailures;
+
+    public CityImportService(
+        CityRepository cityRepository,
+        CountryRepository countryRepository,
+        EntityManager entityManager,
+        TransactionTemplate transactionTemplate,
+        CountryService countryService,
+        CountryStatsService countryStatsService,
+        ApplicationEventPublisher applicationEventPublisher,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cityRepository = cityRepository;
+        this.countryRepository = countryRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.countryService = countryService;
+        this.countryStatsService = countryStatsService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = applicationProperties.getCityImport().getChunkSize();
+        this.maxReportedFailures = applicationProperties.getCityImport().getMaxReportedFailures();
+    }
+
+    /**
+     * Import cities from CSV, with a header line naming a {@code name} column and optionally a {@code countryId}
+     * column, separated by commas or semicolons.
+     *
+     * @param reader the CSV content.
+     * @return the summary of the import.
+     * @throws IOException if the content couldn't be read.
+     */
+    public CityImportSummaryDTO importCsv(BufferedReader reader) throws IOException {
+        return importCities(CityImportReader.csv(reader));
+    }
+
+    /**
+     * Import cities from newline delimited JSON objects, with a {@code name} and optionally a {@code countryId}.
+     *
+     * @param reader the NDJSON content.
+     * @return the summary of the import.
+     * @throws IOException if the content couldn't be read.
+     */
+    public CityImportSummaryDTO importNdjson(BufferedReader reader) throws IOException {
+        return importCities(CityImportReader.ndjson(reader, objectMapper));
+    }
+
+    private CityImportSummaryDTO importCities(CityImportReader reader) throws IOException {
+        CityImportSummaryDTO summary = new CityImportSummaryDTO();
+        List<CityImportReader.Row> chunk = new ArrayList<>(chunkSize);
+        CityImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            String error = row.error != null ? row.error : validate(row);
+            if (error != null) {
+                fail(summary, row.line, error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                write(chunk, summary);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, summary);
+        }
+        log.debug("Imported {} cities, {} rows failed", summary.getImported(), summary.getFailed());
+        return summary;
+    }
+
+    private String validate(CityImportReader.Row row) {
+        if (row.name == null || row.name.isBlank()) {
+            return "Missing name";
+        }
+        if (row.name.length() > MAX_NAME_LENGTH) {
+            return "Name longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (row.countryId != null && !countryService.existsById(row.countryId)) {
+            return "Unknown country: " + row.countryId;
+        }
+        return null;
+    }
+
+    private void write(List<CityImportReader.Row> chunk, CityImportSummaryDTO summary) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // The whole chunk is sent as a single JDBC batch, without filling the second level cache
+                Session session = entityManager.unwrap(Session.class);
+                session.setJdbcBatchSize(chunk.size());
+                session.setCacheMode(CacheMode.IGNORE);
+                List<City> cities = new ArrayList<>(chunk.size());
+                SortedMap<Long, Long> cityCountByCountryId = new TreeMap<>();
+                for (CityImportReader.Row row : chunk) {
+                    City city = new City();
+                    city.setName(row.name);
+                    if (row.countryId != null) {
+                        city.setCountry(countryRepository.getReferenceById(row.countryId));
+                        cityCountByCountryId.merge(row.countryId, 1L, Long::sum);
+                    }
+                    cities.add(city);
+                }
+                cityRepository.saveAll(cities);
+                cityRepository.flush();
+                entityManager.clear();
+                cities.forEach(city -> applicationEventPublisher.publishEvent(new CityChangedEvent(city.getId(), city.getName())));
+                countryStatsService.citiesAdded(cityCountByCountryId);
+            });
+            summary.setImported(summary.getImported() + chunk.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not import cities of lines {} to {}", chunk.get(0).line, chunk.get(chunk.size() - 1).line, e);
+            String error = "Chunk rejected: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            chunk.forEach(row -> fail(summary, row.line, error));
+        }
+    }
+
+    private void fail(CityImportSummaryDTO summary, long line, String error) {
+        summary.setFailed(summary.getFailed() + 1);
+        if (summary.getFailures().size() < maxReportedFailures) {
+            summary.getFailures().add(new CityImportSummaryDTO.RowFailure(line, error));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.andersen.techtask.sample.service;
+
+/**
+ * Published when new content is stored as the logo of a city.
+ */
+public class CityLogoChangedEvent {
+
+    private final Long cityId;
+
+    private final String sha256;
+
+    public CityLogoChangedEvent(Long cityId, String sha256) {
+        this.cityId = cityId;
+        this.sha256 = sha256;
+    }
+
+    public Long getCityId() {
+        return cityId;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    @Override
+    public String toString() {
+        return "CityLogoChangedEvent{cityId=" + cityId + ", sha256='" + sha256 + "'}";
+    }
+}
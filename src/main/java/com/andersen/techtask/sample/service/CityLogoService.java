@@ -0,0 +1,232 @@
+package com.andersen.techtask.sample.service;
+
+import com.andersen.techtask.sample.config.ApplicationProperties;
+import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.domain.CityLogo;
+import com.andersen.techtask.sample.repository.CityLogoRepository;
+import com.andersen.techtask.sample.repository.LogoBlobRepository;
+import com.andersen.techtask.sample.service.storage.LogoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Service class for storing and reading {@link CityLogo} content.
+ */
+@Service
+@Transactional
+public class CityLogoService {
+
+    private final Logger log = LoggerFactory.getLogger(CityLogoService.class);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int PURGE_BATCH_SIZE = 100;
+
+    private final CityLogoRepository cityLogoRepository;
+
+    private final LogoBlobRepository logoBlobRepository;
+
+    private final LogoStorage logoStorage;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Semaphore uploadPermits;
+
+    public CityLogoService(
+        CityLogoRepository cityLogoRepository,
+        LogoBlobRepository logoBlobRepository,
+        LogoStorage logoStorage,
+        ApplicationEventPublisher applicationEventPublisher,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cityLogoRepository = cityLogoRepository;
+        this.logoBlobRepository = logoBlobRepository;
+        this.logoStorage = logoStorage;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.uploadPermits = new Semaphore(applicationProperties.getLogo().getMaxConcurrentUploads());
+    }
+
+    /**
+     * Store the uploaded file as the logo of the given city, replacing any previous logo.
+     * <p>
+     * The content is never buffered as a whole: it is hashed and then streamed into the {@link LogoStorage} from the
+     * multipart temporary file, so the heap used per upload doesn't depend on the file size as long as the database
+     * driver streams it too, see {@link com.andersen.techtask.sample.service.storage.DatabaseLogoStorage}. Content
+     * already stored for another logo is not stored again. A {@link CityLogoChangedEvent} is published when the
+     * content changed, the thumbnail of the previous content is dropped until a new one is generated.
+     *
+     * @param city the city owning the logo.
+     * @param file the uploaded logo.
+     * @return the persisted logo.
+     * @throws UploadLimitExceededException if this node is already writing the maximum number of uploads.
+     */
+    public CityLogo save(City city, MultipartFile file) {
+        log.debug("Request to save logo of City : {}", city.getId());
+        if (!uploadPermits.tryAcquire()) {
+            throw new UploadLimitExceededException();
+        }
+        try {
+            CityLogo logo = cityLogoRepository.findWithLockById(city.getId()).orElseGet(() -> new CityLogo().city(city));
+            String previous = logo.getSha256();
+            String sha256 = sha256(file);
+            boolean changed = !sha256.equals(previous);
+            if (changed) {
+                logoStorage.store(sha256, file.getSize(), file);
+                if (previous != null) {
+                    logoStorage.release(previous);
+                }
+                if (logo.getThumbnailSha256() != null) {
+                    logoStorage.release(logo.getThumbnailSha256());
+                    logo.setThumbnailSha256(null);
+                    logo.setThumbnailSize(null);
+                }
+            }
+            logo.setContentType(file.getContentType());
+            logo.setSize(file.getSize());
+            logo.setSha256(sha256);
+            CityLogo result = cityLogoRepository.save(logo);
+            if (changed) {
+                applicationEventPublisher.publishEvent(new CityLogoChangedEvent(city.getId(), sha256));
+            }
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            uploadPermits.release();
+        }
+    }
+
+    /**
+     * Store the given thumbnail for the logo of the given city, unless the logo changed since the thumbnail was
+     * generated.
+     *
+     * @param cityId the id of the city owning the logo.
+     * @param sourceSha256 the hash of the logo content the thumbnail was generated from.
+     * @param thumbnail the PNG encoded thumbnail.
+     * @return {@code true} if the thumbnail was stored.
+     */
+    public boolean saveThumbnail(Long cityId, String sourceSha256, byte[] thumbnail) {
+        Optional<CityLogo> current = cityLogoRepository.findWithLockById(cityId).filter(logo -> logo.getSha256().equals(sourceSha256));
+        if (current.isEmpty()) {
+            log.debug("Logo of City {} changed, dropping thumbnail of {}", cityId, sourceSha256);
+            return false;
+        }
+        CityLogo logo = current.get();
+        try {
+            InputStreamSource content = new ByteArrayResource(thumbnail);
+            String previous = logo.getThumbnailSha256();
+            String sha256 = sha256(content);
+            if (!sha256.equals(previous)) {
+                logoStorage.store(sha256, thumbnail.length, content);
+                if (previous != null) {
+                    logoStorage.release(previous);
+                }
+            }
+            logo.setThumbnailSha256(sha256);
+            logo.setThumbnailSize((long) thumbnail.length);
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Delete the logo of the given city, if any, releasing its content and thumbnail.
+     *
+     * @param cityId the id of the city owning the logo.
+     */
+    public void delete(Long cityId) {
+        log.debug("Request to delete logo of City : {}", cityId);
+        cityLogoRepository
+            .findWithLockById(cityId)
+            .ifPresent(logo -> {
+                logoStorage.release(logo.getSha256());
+                if (logo.getThumbnailSha256() != null) {
+                    logoStorage.release(logo.getThumbnailSha256());
+                }
+                cityLogoRepository.delete(logo);
+            });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CityLogoRepository.Summary> findSummary(Long cityId) {
+        return cityLogoRepository.findSummaryById(cityId);
+    }
+
+    /**
+     * Stream a byte range of the given logo content, original or thumbnail, from the {@link LogoStorage}.
+     * <p>
+     * No transaction is started here, the storage only opens one if it reads the content from the database.
+     *
+     * @param sha256 the hash of the content.
+     * @param start the zero-based offset of the first byte to copy.
+     * @param length the number of bytes to copy.
+     * @param out the stream to copy the bytes to.
+     * @throws IOException if the bytes couldn't be read or written.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void copyTo(String sha256, long start, long length, OutputStream out) throws IOException {
+        logoStorage.copyTo(sha256, start, length, out);
+    }
+
+    /**
+     * Unreferenced logo content is removed every day, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void removeUnreferencedContent() {
+        List<String> batch;
+        while (!(batch = logoBlobRepository.findUnreferencedSha256(PageRequest.of(0, PURGE_BATCH_SIZE))).isEmpty()) {
+            int purged = 0;
+            for (String sha256 : batch) {
+                try {
+                    if (logoStorage.purge(sha256)) {
+                        purged++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not remove logo content {}", sha256, e);
+                }
+            }
+            log.debug("Removed {} unreferenced logo contents", purged);
+            if (purged == 0) {
+                return;
+            }
+        }
+    }
+
+    private static String sha256(InputStreamSource file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (in.read(buffer) != -1) {
+                // only digesting
+            }
+        }
+        return new String(Hex.encode(digest.digest()));
+    }
+}
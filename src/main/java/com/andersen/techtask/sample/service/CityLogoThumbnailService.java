@@ -0,0 +1,168 @@
+package com.andersen.techtask.sample.service;
+
+import com.andersen.techtask.sample.config.ApplicationProperties;
+import com.andersen.techtask.sample.repository.CityLogoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Service class generating the thumbnails of {@link com.andersen.techtask.sample.domain.CityLogo}s.
+ * <p>
+ * Thumbnails are generated in the background once a new logo is committed, so uploads never wait for image
+ * decoding. Until its thumbnail is stored, a logo is served in full size.
+ */
+@Service
+public class CityLogoThumbnailService {
+
+    private final Logger log = LoggerFactory.getLogger(CityLogoThumbnailService.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    private final CityLogoRepository cityLogoRepository;
+
+    private final CityLogoService cityLogoService;
+
+    private final int thumbnailSize;
+
+    public CityLogoThumbnailService(
+        CityLogoRepository cityLogoRepository,
+        CityLogoService cityLogoService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cityLogoRepository = cityLogoRepository;
+        this.cityLogoService = cityLogoService;
+        this.thumbnailSize = applicationProperties.getLogo().getThumbnailSize();
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onLogoChanged(CityLogoChangedEvent event) {
+        log.debug("Generating thumbnail for {}", event);
+        try {
+            cityLogoService
+                .findSummary(event.getCityId())
+                .filter(logo -> logo.getSha256().equals(event.getSha256()))
+                .ifPresent(this::generate);
+        } catch (RuntimeException e) {
+            log.warn("Could not generate thumbnail for {}", event, e);
+        }
+    }
+
+    /**
+     * Generate the thumbnails of all the logos which don't have one yet, like the logos stored before thumbnails
+     * existed. Logos which aren't images supported by {@link ImageIO} are skipped.
+     *
+     * @return the number of generated thumbnails.
+     */
+    public int generateMissing() {
+        int generated = 0;
+        long after = 0;
+        List<CityLogoRepository.Summary> batch;
+        while (
+            !(batch =
+                cityLogoRepository.findSummaryByThumbnailSha256IsNullAndIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, BATCH_SIZE))).isEmpty()
+        ) {
+            for (CityLogoRepository.Summary logo : batch) {
+                if (generate(logo)) {
+                    generated++;
+                }
+                after = logo.getId();
+            }
+        }
+        return generated;
+    }
+
+    private boolean generate(CityLogoRepository.Summary logo) {
+        byte[] thumbnail;
+        try {
+            Path original = Files.createTempFile("logo-", null);
+            try {
+                try (OutputStream out = Files.newOutputStream(original)) {
+                    cityLogoService.copyTo(logo.getSha256(), 0, logo.getSize(), out);
+                }
+                thumbnail = createThumbnail(original, thumbnailSize);
+            } finally {
+                Files.deleteIfExists(original);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read logo of City {}", logo.getId(), e);
+            return false;
+        }
+        if (thumbnail == null) {
+            log.debug("Logo of City {} isn't a supported image, no thumbnail generated", logo.getId());
+            return false;
+        }
+        return cityLogoService.saveThumbnail(logo.getId(), logo.getSha256(), thumbnail);
+    }
+
+    /**
+     * Scale the given image down to fit in a {@code maxSize} square, keeping its aspect ratio.
+     * <p>
+     * The image is decoded with subsampling, at no more than twice the thumbnail resolution, so that the heap
+     * needed doesn't grow with the size of the original.
+     *
+     * @param image the file containing the original image.
+     * @param maxSize the maximum width and height of the thumbnail.
+     * @return the PNG encoded thumbnail, or {@code null} if the file isn't a supported image.
+     * @throws IOException if the image couldn't be decoded.
+     */
+    static byte[] createThumbnail(Path image, int maxSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(image.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                double scale = Math.min(1d, (double) maxSize / Math.max(width, height));
+                int thumbnailWidth = Math.max(1, (int) Math.round(width * scale));
+                int thumbnailHeight = Math.max(1, (int) Math.round(height * scale));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, (int) (1 / scale) / 2);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                BufferedImage thumbnail = new BufferedImage(thumbnailWidth, thumbnailHeight, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D graphics = thumbnail.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    graphics.drawImage(source, 0, 0, thumbnailWidth, thumbnailHeight, null);
+                } finally {
+                    graphics.dispose();
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(thumbnail, "png", out);
+                return out.toByteArray();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.andersen.techtask.sample.service;
+
+import com.andersen.techtask.sample.domain.Country;
+import com.andersen.techtask.sample.domain.CountryChangedEvent;
+import com.andersen.techtask.sample.repository.CountryRepository;
+import com.andersen.techtask.sample.service.dto.CountryDTO;
+import com.andersen.techtask.sample.service.search.TextNormalizer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service class for reading {@link Country} from an in-memory snapshot.
+ * <p>
+ * There are only a few hundred countries and they almost never change, so they are loaded once and then read
+ * without touching the database. The snapshot is immutable, readers never lock: any write to a country builds a new
+ * snapshot once committed, which then replaces the previous one at once.
+ */
+@Service
+public class CountryService {
+
+    private final Logger log = LoggerFactory.getLogger(CountryService.class);
+
+    private final CountryRepository countryRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public CountryService(CountryRepository countryRepository, ObjectMapper objectMapper) {
+        this.countryRepository = countryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get all the countries, ordered by name.
+     *
+     * @return the countries serialized as a JSON array of {@link CountryDTO}, with their entity tag.
+     */
+    public SerializedCountries findAllSerialized() {
+        return snapshot().serialized;
+    }
+
+    /**
+     * Check whether a country exists, without querying the database.
+     *
+     * @param id the id of the country.
+     * @return {@code true} if the country exists.
+     */
+    public boolean existsById(Long id) {
+        return id != null && Arrays.binarySearch(snapshot().sortedIds, id) >= 0;
+    }
+
+    /**
+     * Find the ids of the countries whose name contains the given text, ignoring case and accents.
+     *
+     * @param text the text to search.
+     * @return the ids of the matching countries.
+     */
+    public List<Long> findIdsByNameContaining(String text) {
+        String normalized = TextNormalizer.normalize(text);
+        Snapshot current = snapshot();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < current.ids.length; i++) {
+            if (current.normalizedNames[i].contains(normalized)) {
+                ids.add(current.ids[i]);
+            }
+        }
+        return ids;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountryChanged(CountryChangedEvent event) {
+        log.debug("Reloading countries after {}", event);
+        refresh();
+    }
+
+    /**
+     * Load the countries again and replace the snapshot.
+     */
+    public synchronized void refresh() {
+        snapshot = load();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        List<CountryRepository.IdAndName> countries = countryRepository.findAllIdAndName();
+        long[] ids = new long[countries.size()];
+        String[] normalizedNames = new String[countries.size()];
+        List<CountryDTO> dtos = new ArrayList<>(countries.size());
+        for (int i = 0; i < ids.length; i++) {
+            CountryRepository.IdAndName country = countries.get(i);
+            ids[i] = country.getId();
+            normalizedNames[i] = country.getName() != null ? TextNormalizer.normalize(country.getName()) : "";
+            dtos.add(new CountryDTO(country.getId(), country.getName()));
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(dtos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize countries", e);
+        }
+        log.debug("Loaded {} countries", ids.length);
+        return new Snapshot(ids, normalizedNames, new SerializedCountries(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\""));
+    }
+
+    private static final class Snapshot {
+
+        private final long[] ids;
+
+        private final String[] normalizedNames;
+
+        private final long[] sortedIds;
+
+        private final SerializedCountries serialized;
+
+        private Snapshot(long[] ids, String[] normalizedNames, SerializedCountries serialized) {
+            this.ids = ids;
+            this.normalizedNames = normalizedNames;
+            this.sortedIds = ids.clone();
+            Arrays.sort(this.sortedIds);
+            this.serialized = serialized;
+        }
+    }
+
+    /**
+     * The JSON list of the countries and its entity tag, taken from the same snapshot.
+     */
+    public static final class SerializedCountries {
+
+        private final byte[] json;
+
+        private final String etag;
+
+        private SerializedCountries(byte[] json, String etag) {
+            this.json = json;
+            this.etag = etag;
+        }
+
+        /**
+         * @return the JSON content, which must not be modified.
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.andersen.techtask.sample.service;
+
+import com.andersen.techtask.sample.domain.Country;
+import com.andersen.techtask.sample.domain.CountryStats;
+import com.andersen.techtask.sample.repository.CountryStatsRepository;
+import com.andersen.techtask.sample.service.dto.CountryStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service class maintaining the {@link CountryStats}.
+ * <p>
+ * The counts are changed in the transaction writing the cities, so they commit or roll back with them.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class CountryStatsService {
+
+    private final Logger log = LoggerFactory.getLogger(CountryStatsService.class);
+
+    private final CountryStatsRepository countryStatsRepository;
+
+    public CountryStatsService(CountryStatsRepository countryStatsRepository) {
+        this.countryStatsRepository = countryStatsRepository;
+    }
+
+    /**
+     * Count a city moving from a country to another, a {@code null} country standing for a city created, deleted
+     * or without country.
+     *
+     * @param from the previous country of the city.
+     * @param to the new country of the city.
+     */
+    public void cityMoved(Country from, Country to) {
+        Long fromId = from != null ? from.getId() : null;
+        Long toId = to != null ? to.getId() : null;
+        if (Objects.equals(fromId, toId)) {
+            return;
+        }
+        log.debug("Request to move a city from Country {} to Country {}", fromId, toId);
+        // Always lock in the same order, so that two opposite moves can't deadlock
+        if (fromId != null && (toId == null || fromId < toId)) {
+            addCityCount(fromId, -1);
+            addCityCount(toId, 1);
+        } else {
+            addCityCount(toId, 1);
+            addCityCount(fromId, -1);
+        }
+    }
+
+    /**
+     * Count cities added in bulk.
+     *
+     * @param cityCountByCountryId the number of added cities by country id, sorted by id so that concurrent
+     * imports lock the countries in the same order.
+     */
+    public void citiesAdded(SortedMap<Long, Long> cityCountByCountryId) {
+        cityCountByCountryId.forEach(this::addCityCount);
+    }
+
+    /**
+     * Get the aggregates of all the countries, in a single query over the countries.
+     *
+     * @return the aggregates of all the countries, ordered by country name.
+     */
+    @Transactional(readOnly = true)
+    public List<CountryStatsDTO> findAll() {
+        return countryStatsRepository
+            .findAllCountryCityCounts()
+            .stream()
+            .map(stats -> new CountryStatsDTO(stats.getCountryId(), stats.getCountryName(), stats.getCityCount()))
+            .collect(Collectors.toList());
+    }
+
+    private void addCityCount(Long countryId, long delta) {
+        if (countryId == null) {
+            return;
+        }
+        countryStatsRepository.addCityCount(countryId, delta);
+    }
+}
@@ -0,0 +1,10 @@
+package com.andersen.techtask.sample.service;
+
+public class UploadLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UploadLimitExceededException() {
+        super("Too many concurrent uploads, try again later");
+    }
+}
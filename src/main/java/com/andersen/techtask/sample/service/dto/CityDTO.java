@@ -0,0 +1,98 @@
+package com.andersen.techtask.sample.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a city in lists and search results, with the name of its country and the versioned URL of its
+ * logo, mapped from a {@link com.andersen.techtask.sample.repository.CitySummary}.
+ */
+public class CityDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String name;
+
+    private Long countryId;
+
+    private String countryName;
+
+    private String logoUrl;
+
+    private String logoHash;
+
+    public CityDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CityDTO(Long id, String name, Long countryId, String countryName, String logoHash) {
+        this.id = id;
+        this.name = name;
+        this.countryId = countryId;
+        this.countryName = countryName;
+        this.logoHash = logoHash;
+        // Versioned by the content hash, so that the logo is cacheable until it changes
+        this.logoUrl = logoHash != null ? "/api/cities/" + id + "/logo?v=" + logoHash : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getCountryId() {
+        return countryId;
+    }
+
+    public void setCountryId(Long countryId) {
+        this.countryId = countryId;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+
+    public void setCountryName(String countryName) {
+        this.countryName = countryName;
+    }
+
+    public String getLogoUrl() {
+        return logoUrl;
+    }
+
+    public void setLogoUrl(String logoUrl) {
+        this.logoUrl = logoUrl;
+    }
+
+    public String getLogoHash() {
+        return logoHash;
+    }
+
+    public void setLogoHash(String logoHash) {
+        this.logoHash = logoHash;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CityDTO{" +
+            "id=" + id +
+            ", name='" + name + '\'' +
+            ", countryId=" + countryId +
+            ", countryName='" + countryName + '\'' +
+            ", logoHash='" + logoHash + '\'' +
+            "}";
+    }
+}
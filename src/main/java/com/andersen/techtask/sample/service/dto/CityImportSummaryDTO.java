@@ -0,0 +1,98 @@
+package com.andersen.techtask.sample.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO summarizing a bulk import of cities: the number of imported and failed rows, and the first failures.
+ */
+public class CityImportSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long imported;
+
+    private long failed;
+
+    private List<RowFailure> failures = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<RowFailure> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<RowFailure> failures) {
+        this.failures = failures;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CityImportSummaryDTO{" +
+            "imported=" + imported +
+            ", failed=" + failed +
+            "}";
+    }
+
+    /**
+     * A row which couldn't be imported.
+     */
+    public static class RowFailure implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long line;
+
+        private String message;
+
+        public RowFailure() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowFailure(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "RowFailure{" +
+                "line=" + line +
+                ", message='" + message + '\'' +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.andersen.techtask.sample.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a country, without its cities.
+ */
+public class CountryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String name;
+
+    public CountryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CountryDTO(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CountryDTO{" +
+            "id=" + id +
+            ", name='" + name + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,61 @@
+package com.andersen.techtask.sample.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the aggregates of a country.
+ */
+public class CountryStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long countryId;
+
+    private String countryName;
+
+    private Long cityCount;
+
+    public CountryStatsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CountryStatsDTO(Long countryId, String countryName, Long cityCount) {
+        this.countryId = countryId;
+        this.countryName = countryName;
+        this.cityCount = cityCount;
+    }
+
+    public Long getCountryId() {
+        return countryId;
+    }
+
+    public void setCountryId(Long countryId) {
+        this.countryId = countryId;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+
+    public void setCountryName(String countryName) {
+        this.countryName = countryName;
+    }
+
+    public Long getCityCount() {
+        return cityCount;
+    }
+
+    public void setCityCount(Long cityCount) {
+        this.cityCount = cityCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CountryStatsDTO{" +
+            "countryId=" + countryId +
+            ", countryName='" + countryName + '\'' +
+            ", cityCount=" + cityCount +
+            "}";
+    }
+}
@@ -0,0 +1,22 @@
+package com.andersen.techtask.sample.service.mapper;
+
+import com.andersen.techtask.sample.repository.CitySummary;
+import com.andersen.techtask.sample.service.dto.CityDTO;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mapper for the projection {@link CitySummary} and its DTO called {@link CityDTO}.
+ */
+@Service
+public class CityMapper {
+
+    public List<CityDTO> citySummariesToCityDTOs(List<CitySummary> cities) {
+        return cities.stream().map(this::citySummaryToCityDTO).collect(Collectors.toList());
+    }
+
+    public CityDTO citySummaryToCityDTO(CitySummary city) {
+        return new CityDTO(city.getId(), city.getName(), city.getCountryId(), city.getCountryName(), city.getLogoHash());
+    }
+}
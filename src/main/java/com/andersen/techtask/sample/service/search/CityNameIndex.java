@@ -0,0 +1,248 @@
+package com.andersen.techtask.sample.service.search;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An inverted trigram index over city names, answering case and accent insensitive substring queries.
+ * <p>
+ * Names are normalized by the {@link TextNormalizer}, and every trigram of the normalized name, padded with a
+ * leading space, points to the sorted list of entries containing it. A query of three characters or more intersects
+ * the lists of its trigrams, starting with the shortest one, and checks the remaining candidates against the name.
+ * Shorter queries only match word prefixes, through the word-start grams ({@code " a"}, {@code " ab"}), as any
+ * substring of one or two characters would match most of the cities.
+ * <p>
+ * Renaming a city appends a new entry and leaves the previous one as a tombstone, skipped by queries, so that
+ * lists never have to be rewritten. Tombstones are dropped when the index is rebuilt.
+ * <p>
+ * This class is thread-safe: lookups run concurrently, updates are exclusive.
+ */
+public class CityNameIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Postings> postingsByGram = new HashMap<>();
+
+    private final Map<Long, Integer> entryByCityId = new HashMap<>();
+
+    private long[] cityIds = new long[1024];
+
+    private String[] names = new String[1024];
+
+    private int size;
+
+    /**
+     * Index the given city under the given name, replacing its previous name if any.
+     *
+     * @param cityId the id of the city.
+     * @param name the name of the city, {@code null} to only remove the city from the index.
+     */
+    public void put(long cityId, String name) {
+        String normalized = name != null ? TextNormalizer.normalize(name) : "";
+        lock.writeLock().lock();
+        try {
+            Integer previous = entryByCityId.remove(cityId);
+            if (previous != null) {
+                if (normalized.equals(names[previous])) {
+                    entryByCityId.put(cityId, previous);
+                    return;
+                }
+                names[previous] = null;
+            }
+            if (normalized.isEmpty()) {
+                return;
+            }
+            if (size == cityIds.length) {
+                cityIds = Arrays.copyOf(cityIds, size * 2);
+                names = Arrays.copyOf(names, size * 2);
+            }
+            int entry = size++;
+            cityIds[entry] = cityId;
+            names[entry] = normalized;
+            entryByCityId.put(cityId, entry);
+            String padded = " " + normalized;
+            for (int i = 0; i < padded.length(); i++) {
+                if (padded.charAt(i) == ' ' && i + 1 < padded.length()) {
+                    addPosting(gram(' ', padded.charAt(i + 1), '\0'), entry);
+                }
+                if (i + 3 <= padded.length()) {
+                    addPosting(gram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)), entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the cities whose name contains the given query, the best matches first: exact names, then names starting
+     * with the query, then names with a word starting with it, then any other match; shorter names first within
+     * each group.
+     *
+     * @param query the text to search.
+     * @param limit the maximum number of cities to return.
+     * @return the ids of the matching cities, in relevance order.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = TextNormalizer.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        boolean prefixOnly = normalized.length() < 3;
+        lock.readLock().lock();
+        try {
+            Postings[] lists = postingsOf(normalized, prefixOnly);
+            if (lists == null) {
+                return Collections.emptyList();
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            Comparator<Match> relevance = Comparator
+                .comparingInt((Match match) -> match.rank)
+                .thenComparingInt(match -> names[match.entry].length())
+                .thenComparing(match -> names[match.entry]);
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, relevance.reversed());
+            int[] cursors = new int[lists.length];
+            candidates:for (int k = 0; k < lists[0].size; k++) {
+                int entry = lists[0].entries[k];
+                for (int i = 1; i < lists.length; i++) {
+                    cursors[i] = lists[i].seek(cursors[i], entry);
+                    if (cursors[i] == lists[i].size) {
+                        break candidates;
+                    }
+                    if (lists[i].entries[cursors[i]] != entry) {
+                        continue candidates;
+                    }
+                }
+                String name = names[entry];
+                if (name == null) {
+                    continue;
+                }
+                int rank = rank(name, normalized, prefixOnly);
+                if (rank < 0) {
+                    continue;
+                }
+                Match match = new Match(entry, rank);
+                if (best.size() < limit) {
+                    best.add(match);
+                } else if (relevance.compare(match, best.peek()) < 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+            Long[] result = new Long[best.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = cityIds[best.poll().entry];
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed cities.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entryByCityId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Postings[] postingsOf(String query, boolean prefixOnly) {
+        long[] grams;
+        if (prefixOnly) {
+            grams = new long[] { gram(' ', query.charAt(0), query.length() > 1 ? query.charAt(1) : '\0') };
+        } else {
+            grams = new long[query.length() - 2];
+            for (int i = 0; i < grams.length; i++) {
+                grams[i] = gram(query.charAt(i), query.charAt(i + 1), query.charAt(i + 2));
+            }
+        }
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postingsByGram.get(grams[i]);
+            if (lists[i] == null) {
+                return null;
+            }
+        }
+        return lists;
+    }
+
+    private static int rank(String name, String query, boolean prefixOnly) {
+        if (name.equals(query)) {
+            return 0;
+        }
+        if (name.startsWith(query)) {
+            return 1;
+        }
+        if (name.contains(" " + query)) {
+            return 2;
+        }
+        return !prefixOnly && name.contains(query) ? 3 : -1;
+    }
+
+    private void addPosting(long gram, int entry) {
+        postingsByGram.computeIfAbsent(gram, key -> new Postings()).add(entry);
+    }
+
+    private static long gram(char c1, char c2, char c3) {
+        return ((long) c1 << 32) | ((long) c2 << 16) | c3;
+    }
+
+    /**
+     * A growable, sorted list of entries: entries are only ever appended in increasing order.
+     */
+    private static final class Postings {
+
+        private int[] entries = EMPTY;
+
+        private int size;
+
+        void add(int entry) {
+            if (size > 0 && entries[size - 1] == entry) {
+                return;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(4, size * 2));
+            }
+            entries[size++] = entry;
+        }
+
+        /**
+         * @return the index of the first entry, from {@code from}, which is not less than {@code entry}, found by
+         * galloping so that intersecting a short list with a long one stays proportional to the short one.
+         */
+        int seek(int from, int entry) {
+            int bound = 1;
+            while (from + bound < size && entries[from + bound] < entry) {
+                bound <<= 1;
+            }
+            int index = Arrays.binarySearch(entries, from + (bound >> 1), Math.min(from + bound + 1, size), entry);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    private static final class Match {
+
+        private final int entry;
+
+        private final int rank;
+
+        private Match(int entry, int rank) {
+            this.entry = entry;
+            this.rank = rank;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.andersen.techtask.sample.service.search;
+
+import com.andersen.techtask.sample.repository.CityRepository;
+import com.andersen.techtask.sample.service.CityChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service class searching cities by name through an in-memory {@link CityNameIndex} and suggesting them through an
+ * in-memory {@link CityNameTrie}.
+ * <p>
+ * Both are loaded once the application is ready, kept up to date with committed {@link CityChangedEvent}s and
+ * rebuilt every night to drop the index entries of renamed cities. Until they are loaded, queries aren't answered
+ * and callers are expected to fall back to the database.
+ */
+@Service
+public class CityNameSearchService {
+
+    private final Logger log = LoggerFactory.getLogger(CityNameSearchService.class);
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final CityRepository cityRepository;
+
+    private final Object updateLock = new Object();
+
+    private volatile CityNameIndex index;
+
+    private volatile CityNameTrie trie;
+
+    /**
+     * Changes committed while the index is being rebuilt, replayed on the new index before it replaces the current one.
+     */
+    private List<CityChangedEvent> pendingChanges;
+
+    public CityNameSearchService(CityRepository cityRepository) {
+        this.cityRepository = cityRepository;
+    }
+
+    /**
+     * Search the cities whose name contains the given query, the best matches first.
+     *
+     * @param query the text to search.
+     * @param limit the maximum number of cities to return.
+     * @return the ids of the matching cities in relevance order, or an empty {@link Optional} if the index isn't loaded yet.
+     */
+    public Optional<List<Long>> search(String query, int limit) {
+        CityNameIndex current = index;
+        return current != null ? Optional.of(current.search(query, limit)) : Optional.empty();
+    }
+
+    /**
+     * Suggest the cities whose name starts with the given prefix, the shortest names first.
+     *
+     * @param prefix the start of the name.
+     * @param limit the maximum number of cities to return.
+     * @return the ids of the suggested cities, or an empty {@link Optional} if the trie isn't loaded yet.
+     */
+    public Optional<List<Long>> suggest(String prefix, int limit) {
+        CityNameTrie current = trie;
+        return current != null ? Optional.of(current.suggest(prefix, limit)) : Optional.empty();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener
+    public void onCityChanged(CityChangedEvent event) {
+        synchronized (updateLock) {
+            if (index != null) {
+                index.put(event.getCityId(), event.getName());
+                trie.put(event.getCityId(), event.getName());
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+        }
+    }
+
+    /**
+     * The city name index and trie are rebuilt every day, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void rebuild() {
+        synchronized (updateLock) {
+            if (pendingChanges != null) {
+                log.debug("City name index is already being rebuilt");
+                return;
+            }
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            CityNameIndex rebuilt = new CityNameIndex();
+            CityNameTrie rebuiltTrie = new CityNameTrie();
+            long after = 0;
+            List<CityRepository.IdAndName> batch;
+            while (!(batch = cityRepository.findIdAndNameByIdAfter(after, PageRequest.of(0, LOAD_BATCH_SIZE))).isEmpty()) {
+                for (CityRepository.IdAndName city : batch) {
+                    rebuilt.put(city.getId(), city.getName());
+                    rebuiltTrie.put(city.getId(), city.getName());
+                }
+                after = batch.get(batch.size() - 1).getId();
+            }
+            synchronized (updateLock) {
+                for (CityChangedEvent event : pendingChanges) {
+                    rebuilt.put(event.getCityId(), event.getName());
+                    rebuiltTrie.put(event.getCityId(), event.getName());
+                }
+                trie = rebuiltTrie;
+                index = rebuilt;
+            }
+            log.info("Indexed {} city names in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+        } finally {
+            synchronized (updateLock) {
+                pendingChanges = null;
+            }
+        }
+    }
+}
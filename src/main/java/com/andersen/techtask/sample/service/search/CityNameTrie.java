@@ -0,0 +1,271 @@
+package com.andersen.techtask.sample.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A radix trie of normalized city names, answering prefix queries with the shortest completions first.
+ * <p>
+ * Each edge holds a whole run of characters, so a node only exists where names branch or end and the trie has at
+ * most twice as many nodes as names. A query walks down to the node matching the prefix, then visits its subtree
+ * best-first by name length, stopping as soon as enough cities were found: the cost depends on the limit and the
+ * branching near the prefix, not on the number of names starting with it.
+ * <p>
+ * Names are normalized by the {@link TextNormalizer}. This class is thread-safe: lookups run concurrently,
+ * updates are exclusive.
+ */
+public class CityNameTrie {
+
+    private static final long[] NO_CITIES = new long[0];
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node("");
+
+    private final Map<Long, String> nameByCityId = new HashMap<>();
+
+    /**
+     * Index the given city under the given name, replacing its previous name if any.
+     *
+     * @param cityId the id of the city.
+     * @param name the name of the city, {@code null} to only remove the city from the trie.
+     */
+    public void put(long cityId, String name) {
+        String normalized = name != null ? TextNormalizer.normalize(name) : "";
+        lock.writeLock().lock();
+        try {
+            String previous = nameByCityId.remove(cityId);
+            if (previous != null) {
+                remove(root, previous, cityId);
+            }
+            if (!normalized.isEmpty()) {
+                nameByCityId.put(cityId, normalized);
+                insert(root, normalized, cityId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the cities whose name starts with the given prefix, ignoring case and accents, the shortest names first
+     * and in alphabetical order for names of the same length.
+     *
+     * @param prefix the start of the name, nothing is suggested for a blank prefix.
+     * @param limit the maximum number of cities to return.
+     * @return the ids of the matching cities.
+     */
+    public List<Long> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            StringBuilder path = new StringBuilder();
+            String remaining = normalized;
+            while (!remaining.isEmpty()) {
+                node = node.child(remaining.charAt(0));
+                if (node == null) {
+                    return Collections.emptyList();
+                }
+                if (!remaining.startsWith(node.label) && !node.label.startsWith(remaining)) {
+                    return Collections.emptyList();
+                }
+                path.append(node.label);
+                remaining = remaining.substring(Math.min(remaining.length(), node.label.length()));
+            }
+
+            List<Long> result = new ArrayList<>(limit);
+            PriorityQueue<Completion> queue = new PriorityQueue<>(
+                Comparator.comparingInt((Completion completion) -> completion.key.length()).thenComparing(completion -> completion.key)
+            );
+            queue.add(new Completion(node, path.toString()));
+            while (!queue.isEmpty()) {
+                Completion completion = queue.poll();
+                for (int i = 0; i < completion.node.cityCount; i++) {
+                    result.add(completion.node.cityIds[i]);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+                for (Node child : completion.node.children) {
+                    queue.add(new Completion(child, completion.key + child.label));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed cities.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nameByCityId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void insert(Node node, String key, long cityId) {
+        while (true) {
+            if (key.isEmpty()) {
+                node.addCity(cityId);
+                return;
+            }
+            Node child = node.child(key.charAt(0));
+            if (child == null) {
+                Node leaf = new Node(key);
+                leaf.addCity(cityId);
+                node.addChild(leaf);
+                return;
+            }
+            int common = commonPrefixLength(child.label, key);
+            if (common < child.label.length()) {
+                // Split the edge where the key leaves it
+                Node split = new Node(child.label.substring(0, common));
+                node.replaceChild(child, split);
+                child.label = child.label.substring(common);
+                split.addChild(child);
+                child = split;
+            }
+            node = child;
+            key = key.substring(common);
+        }
+    }
+
+    private static boolean remove(Node node, String key, long cityId) {
+        if (key.isEmpty()) {
+            return node.removeCity(cityId);
+        }
+        Node child = node.child(key.charAt(0));
+        if (child == null || !key.startsWith(child.label) || !remove(child, key.substring(child.label.length()), cityId)) {
+            return false;
+        }
+        if (child.cityCount == 0) {
+            if (child.children.length == 0) {
+                node.removeChild(child);
+            } else if (child.children.length == 1) {
+                // Merge the edge back with its only remaining child
+                Node grandChild = child.children[0];
+                grandChild.label = child.label + grandChild.label;
+                node.replaceChild(child, grandChild);
+            }
+        }
+        return true;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private String label;
+
+        /**
+         * Sorted by the first character of their label, which is unique among siblings.
+         */
+        private Node[] children = NO_CHILDREN;
+
+        private long[] cityIds = NO_CITIES;
+
+        private int cityCount;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            int index = -indexOf(child.label.charAt(0)) - 1;
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void replaceChild(Node child, Node replacement) {
+            children[indexOf(child.label.charAt(0))] = replacement;
+        }
+
+        void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, shrunk.length - index);
+            children = shrunk;
+        }
+
+        void addCity(long cityId) {
+            if (cityCount == cityIds.length) {
+                cityIds = Arrays.copyOf(cityIds, Math.max(1, cityCount * 2));
+            }
+            cityIds[cityCount++] = cityId;
+        }
+
+        boolean removeCity(long cityId) {
+            for (int i = 0; i < cityCount; i++) {
+                if (cityIds[i] == cityId) {
+                    cityIds[i] = cityIds[--cityCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char c = children[middle].label.charAt(0);
+                if (c < first) {
+                    low = middle + 1;
+                } else if (c > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+    }
+
+    private static final class Completion {
+
+        private final Node node;
+
+        private final String key;
+
+        private Completion(Node node, String key) {
+            this.node = node;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.andersen.techtask.sample.service.search;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization of names for case and accent insensitive matching: {@code "Saint-Étienne"} becomes
+ * {@code "saint etienne"}.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Lower case, strip accents and replace anything but letters and digits by single spaces.
+     */
+    public static String normalize(String text) {
+        String decomposed = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder result = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                result.append(Character.toLowerCase(c));
+            } else if (result.length() > 0 && result.charAt(result.length() - 1) != ' ') {
+                result.append(' ');
+            }
+        }
+        int length = result.length();
+        if (length > 0 && result.charAt(length - 1) == ' ') {
+            result.setLength(length - 1);
+        }
+        return result.toString();
+    }
+}
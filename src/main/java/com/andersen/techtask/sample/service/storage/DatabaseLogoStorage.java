@@ -0,0 +1,133 @@
+package com.andersen.techtask.sample.service.storage;
+
+import com.andersen.techtask.sample.config.ApplicationProperties;
+import com.andersen.techtask.sample.domain.LogoBlob;
+import com.andersen.techtask.sample.repository.LogoBlobRepository;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+
+/**
+ * {@link LogoStorage} keeping the content in the {@code logo_blob} table.
+ * <p>
+ * This is the default storage, and the fallback of the other storages for content not moved out of the database yet.
+ * <p>
+ * Content is written with {@code setBinaryStream}: with MySQL Connector/J, only server-side prepared statements
+ * ({@code useServerPrepStmts}) send it in chunks rather than buffered whole, and the server still accumulates it up
+ * to {@code max_allowed_packet}, which must therefore be at least the maximum upload size.
+ */
+@Component
+@Transactional
+public class DatabaseLogoStorage implements LogoStorage {
+
+    private final Logger log = LoggerFactory.getLogger(DatabaseLogoStorage.class);
+
+    private final LogoBlobRepository logoBlobRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MultipartProperties multipartProperties;
+
+    private final ApplicationProperties applicationProperties;
+
+    public DatabaseLogoStorage(
+        LogoBlobRepository logoBlobRepository,
+        JdbcTemplate jdbcTemplate,
+        MultipartProperties multipartProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        this.logoBlobRepository = logoBlobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.multipartProperties = multipartProperties;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Warn at startup if the database would reject the largest allowed upload, when logos are stored in it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void checkMaxAllowedPacket() {
+        if (applicationProperties.getLogo().getStorage() != ApplicationProperties.Logo.Storage.DATABASE) {
+            return;
+        }
+        long maxFileSize = multipartProperties.getMaxFileSize().toBytes();
+        try {
+            Long maxAllowedPacket = jdbcTemplate.queryForObject("select @@max_allowed_packet", Long.class);
+            if (maxAllowedPacket != null && maxAllowedPacket < maxFileSize) {
+                log.warn(
+                    "The database max_allowed_packet ({} bytes) is lower than the maximum upload size ({} bytes), larger logos will fail",
+                    maxAllowedPacket,
+                    maxFileSize
+                );
+            }
+        } catch (DataAccessException e) {
+            log.debug("Could not read the database max_allowed_packet", e);
+        }
+    }
+
+    @Override
+    public void store(String sha256, long size, InputStreamSource content) throws IOException {
+        if (logoBlobRepository.insertOrRetain(sha256, size) != 1) {
+            return;
+        }
+        // The inserted row stays locked until commit, no other transaction sees it without its data
+        LogoBlob blob = logoBlobRepository.findById(sha256).orElseThrow(() -> new IllegalStateException("No logo content " + sha256));
+        try (InputStream in = content.getInputStream()) {
+            blob.setData(BlobProxy.generateProxy(in, size));
+            // Flush while the stream is still open, the driver reads it through setBinaryStream
+            logoBlobRepository.saveAndFlush(blob);
+        }
+    }
+
+    @Override
+    public void release(String sha256) {
+        logoBlobRepository.release(sha256);
+    }
+
+    /**
+     * The range is copied from the {@link Blob} of the row, but MySQL Connector/J reads the whole value when the row
+     * is fetched: it only defers the read with {@code emulateLocators}, which needs the query to select the primary key
+     * and an alias standing for the blob column instead of the column itself, unlike the query Hibernate generates. A
+     * read therefore uses heap in proportion to the content size, large logos are better served by the file system
+     * storage.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void copyTo(String sha256, long start, long length, OutputStream out) throws IOException {
+        Blob data = logoBlobRepository.findDataBySha256(sha256).orElseThrow(() -> new FileNotFoundException("No logo content " + sha256));
+        try (InputStream in = data.getBinaryStream(start + 1, length)) {
+            StreamUtils.copy(in, out);
+        } catch (SQLException e) {
+            throw new IOException("Could not read logo content " + sha256, e);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean purge(String sha256) {
+        return logoBlobRepository.deleteUnreferenced(sha256) > 0;
+    }
+
+    @Override
+    public int importFromDatabase() {
+        return 0;
+    }
+}
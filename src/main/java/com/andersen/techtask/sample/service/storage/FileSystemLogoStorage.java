@@ -0,0 +1,217 @@
+package com.andersen.techtask.sample.service.storage;
+
+import com.andersen.techtask.sample.config.ApplicationProperties;
+import com.andersen.techtask.sample.repository.LogoBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * {@link LogoStorage} keeping the content in files named after their hash on the local file system.
+ * <p>
+ * Reference counts are still kept in the {@code logo_blob} table, so that they change in the same transaction as the
+ * logos using them. Only the transaction inserting the row of new content writes its file: to a temporary file first,
+ * atomically moved in place just before the transaction commits while the row is still locked, and deleted instead if
+ * it rolls back, so no file is left without its row. Files are only deleted by {@link #purge(String)} while the row
+ * lock of the unreferenced content is held, so a concurrent write of the same content either sees the file or writes
+ * it again. Content not moved out of the database yet is read from there.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "application.logo.storage", havingValue = "filesystem")
+@Transactional
+public class FileSystemLogoStorage implements LogoStorage {
+
+    private static final int IMPORT_BATCH_SIZE = 100;
+
+    private final Logger log = LoggerFactory.getLogger(FileSystemLogoStorage.class);
+
+    private final Path root;
+
+    private final LogoBlobRepository logoBlobRepository;
+
+    private final DatabaseLogoStorage databaseLogoStorage;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public FileSystemLogoStorage(
+        ApplicationProperties applicationProperties,
+        LogoBlobRepository logoBlobRepository,
+        DatabaseLogoStorage databaseLogoStorage,
+        TransactionTemplate transactionTemplate
+    ) {
+        this.root = Paths.get(applicationProperties.getLogo().getStorageDirectory()).toAbsolutePath();
+        this.logoBlobRepository = logoBlobRepository;
+        this.databaseLogoStorage = databaseLogoStorage;
+        this.transactionTemplate = transactionTemplate;
+        log.info("Storing logos in {}", root);
+    }
+
+    @Override
+    public void store(String sha256, long size, InputStreamSource content) throws IOException {
+        if (logoBlobRepository.insertOrRetain(sha256, size) != 1) {
+            return;
+        }
+        Path path = resolve(sha256);
+        if (!Files.exists(path)) {
+            try (InputStream in = content.getInputStream()) {
+                writeOnCommit(path, in);
+            }
+        }
+    }
+
+    @Override
+    public void release(String sha256) {
+        logoBlobRepository.release(sha256);
+    }
+
+    /**
+     * Files are streamed without any transaction, so that no connection is held while writing to a slow client. Only
+     * content still kept in the database is read in a transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void copyTo(String sha256, long start, long length, OutputStream out) throws IOException {
+        Path path = resolve(sha256);
+        if (!Files.exists(path)) {
+            databaseLogoStorage.copyTo(sha256, start, length, out);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    throw new EOFException("Unexpected end of logo content " + sha256);
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean purge(String sha256) throws IOException {
+        if (logoBlobRepository.deleteUnreferenced(sha256) == 0) {
+            return false;
+        }
+        Files.deleteIfExists(resolve(sha256));
+        return true;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int importFromDatabase() {
+        int imported = 0;
+        String after = "";
+        List<String> batch;
+        while (!(batch = logoBlobRepository.findSha256WithDataAfter(after, PageRequest.of(0, IMPORT_BATCH_SIZE))).isEmpty()) {
+            for (String sha256 : batch) {
+                transactionTemplate.executeWithoutResult(status -> importFromDatabase(sha256));
+                imported++;
+            }
+            after = batch.get(batch.size() - 1);
+        }
+        log.info("Moved {} logo contents from the database to {}", imported, root);
+        return imported;
+    }
+
+    private void importFromDatabase(String sha256) {
+        Blob data = logoBlobRepository.findDataBySha256(sha256).orElse(null);
+        if (data == null) {
+            return;
+        }
+        try (InputStream in = data.getBinaryStream()) {
+            write(resolve(sha256), in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read logo content " + sha256, e);
+        }
+        logoBlobRepository.clearData(sha256);
+    }
+
+    private Path resolve(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private void writeOnCommit(Path path, InputStream in) throws IOException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(path, in);
+            return;
+        }
+        Path temp = writeTemp(path, in);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Failing to move the file rolls back the transaction
+                    try {
+                        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException e) {
+                        log.warn("Could not delete temporary logo file {}", temp, e);
+                    }
+                }
+            }
+        );
+    }
+
+    private static void write(Path path, InputStream in) throws IOException {
+        Path temp = writeTemp(path, in);
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Path writeTemp(Path path, InputStream in) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+}
@@ -0,0 +1,59 @@
+package com.andersen.techtask.sample.service.storage;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Content-addressed storage of logo content.
+ * <p>
+ * Content is identified by its SHA-256 hash and stored only once: storing content which is already present only
+ * adds a reference to it. Content whose last reference is released is removed by {@link #purge(String)}.
+ */
+public interface LogoStorage {
+    /**
+     * Store the given content, or add a reference to it if it is already stored.
+     *
+     * @param sha256 the hex-encoded SHA-256 hash of the content.
+     * @param size the size of the content in bytes.
+     * @param content the source of the content, only read if the content isn't stored yet.
+     * @throws IOException if the content couldn't be read or stored.
+     */
+    void store(String sha256, long size, InputStreamSource content) throws IOException;
+
+    /**
+     * Release a reference to the given content.
+     *
+     * @param sha256 the hash of the content.
+     */
+    void release(String sha256);
+
+    /**
+     * Copy a byte range of the given content.
+     *
+     * @param sha256 the hash of the content.
+     * @param start the zero-based offset of the first byte to copy.
+     * @param length the number of bytes to copy.
+     * @param out the stream to copy the bytes to.
+     * @throws IOException if the content couldn't be read or written.
+     */
+    void copyTo(String sha256, long start, long length, OutputStream out) throws IOException;
+
+    /**
+     * Remove the given content if it isn't referenced anymore.
+     *
+     * @param sha256 the hash of the content.
+     * @return {@code true} if the content was removed.
+     * @throws IOException if the content couldn't be removed.
+     */
+    boolean purge(String sha256) throws IOException;
+
+    /**
+     * Move the content still kept in the database into this storage.
+     *
+     * @return the number of moved contents.
+     * @throws IOException if some content couldn't be moved.
+     */
+    int importFromDatabase() throws IOException;
+}
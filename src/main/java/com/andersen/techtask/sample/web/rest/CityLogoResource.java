@@ -0,0 +1,136 @@
+package com.andersen.techtask.sample.web.rest;
+
+import com.andersen.techtask.sample.domain.CityLogo;
+import com.andersen.techtask.sample.repository.CityLogoRepository;
+import com.andersen.techtask.sample.security.SecurityUtils;
+import com.andersen.techtask.sample.service.CityLogoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller for serving {@link CityLogo} content.
+ * <p>
+ * Logos are streamed as raw bytes with a strong, content-based ETag and support for single byte ranges.
+ * Requests carrying the current content hash as the {@code v} parameter are public and cacheable forever, any other
+ * request needs an authenticated user and has to be revalidated, which is answered with {@code 304 (Not Modified)}
+ * while the logo is unchanged.
+ * With {@code size=thumb}, the PNG thumbnail is served instead, or the original logo until the thumbnail is generated.
+ */
+@RestController
+@RequestMapping("/api")
+public class CityLogoResource {
+
+    private final Logger log = LoggerFactory.getLogger(CityLogoResource.class);
+
+    private static final CacheControl VERSIONED_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic();
+
+    private static final CacheControl REVALIDATED_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private static final String THUMBNAIL_SIZE = "thumb";
+
+    private final CityLogoService cityLogoService;
+
+    public CityLogoResource(CityLogoService cityLogoService) {
+        this.cityLogoService = cityLogoService;
+    }
+
+    /**
+     * {@code GET  /cities/:id/logo} : get the logo of the "id" city.
+     *
+     * @param id the id of the city owning the logo.
+     * @param version the content hash the client expects, if any.
+     * @param size {@code thumb} to get the thumbnail of the logo, if any.
+     * @param request the current request.
+     * @param response the response the logo is streamed to.
+     * @throws IOException if the logo couldn't be streamed.
+     */
+    @GetMapping("/cities/{id}/logo")
+    public void getCityLogo(
+        @PathVariable Long id,
+        @RequestParam(value = "v", required = false) String version,
+        @RequestParam(value = "size", required = false) String size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to get logo of City : {}", id);
+        boolean thumbnail = THUMBNAIL_SIZE.equals(size);
+        if (size != null && !thumbnail) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported logo size");
+        }
+        CityLogoRepository.Summary logo = cityLogoService.findSummary(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        String sha256 = logo.getSha256();
+        long contentSize = logo.getSize();
+        String contentType = logo.getContentType();
+        // The version is the hash of the original, a thumbnail URL only becomes immutable once the thumbnail exists
+        boolean versioned = Objects.equals(sha256, version);
+        // Anonymous users only know the versioned URL from a city list, a stale version doesn't give them the new logo
+        if (!versioned && !SecurityUtils.isAuthenticated()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        if (thumbnail) {
+            if (logo.getThumbnailSha256() != null && logo.getThumbnailSize() != null) {
+                sha256 = logo.getThumbnailSha256();
+                contentSize = logo.getThumbnailSize();
+                contentType = MediaType.IMAGE_PNG_VALUE;
+            } else {
+                versioned = false;
+            }
+        }
+
+        String etag = "\"" + sha256 + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, (versioned ? VERSIONED_CACHE_CONTROL : REVALIDATED_CACHE_CONTROL).getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long start = 0;
+        long end = contentSize - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && isRangeApplicable(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multiple ranges are answered with the full content, as allowed by RFC 7233
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(contentSize);
+                    end = ranges.get(0).getRangeEnd(contentSize);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + contentSize);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + contentSize);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length <= 0) {
+            return;
+        }
+        cityLogoService.copyTo(sha256, start, length, response.getOutputStream());
+    }
+
+    private static boolean isRangeApplicable(String ifRange, String etag) {
+        return ifRange == null || ifRange.equals(etag);
+    }
+}
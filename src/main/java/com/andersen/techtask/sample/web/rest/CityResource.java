@@ -1,33 +1,73 @@
 package com.andersen.techtask.sample.web.rest;
 
 import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.domain.Country;
+import com.andersen.techtask.sample.repository.CitySummary;
 import com.andersen.techtask.sample.repository.CountryRepository;
 import com.andersen.techtask.sample.security.AuthoritiesConstants;
+import com.andersen.techtask.sample.service.CityChangedEvent;
+import com.andersen.techtask.sample.service.CityExportService;
+import com.andersen.techtask.sample.service.CityImportService;
+import com.andersen.techtask.sample.service.CityLogoService;
+import com.andersen.techtask.sample.service.CountryService;
+import com.andersen.techtask.sample.service.CountryStatsService;
+import com.andersen.techtask.sample.service.dto.CityDTO;
+import com.andersen.techtask.sample.service.dto.CityImportSummaryDTO;
+import com.andersen.techtask.sample.service.mapper.CityMapper;
+import com.andersen.techtask.sample.service.search.CityNameSearchService;
 import com.andersen.techtask.sample.web.rest.errors.BadRequestAlertException;
 import com.andersen.techtask.sample.repository.CityRepository;
 import com.andersen.techtask.sample.web.rest.requests.CreateCityRequest;
 import com.andersen.techtask.sample.web.rest.util.ResponseUtil;
 import com.andersen.techtask.sample.web.rest.util.HeaderUtil;
+import com.andersen.techtask.sample.web.rest.util.KeysetPaginationUtil;
 import com.andersen.techtask.sample.web.rest.util.PaginationUtil;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing {@link City}.
@@ -41,6 +81,16 @@ public class CityResource {
 
     private static final String ENTITY_NAME = "city";
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final int MAX_SEARCH_DEPTH = 1000;
+
+    private static final int MAX_IDS = 100;
+
+    private static final String CSV_VALUE = "text/csv";
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     @Value("${spring.application.name}")
     private String applicationName;
 
@@ -48,9 +98,44 @@ public class CityResource {
 
     private final CountryRepository countryRepository;
 
-    public CityResource(CityRepository cityRepository, CountryRepository countryRepository) {
+    private final CityLogoService cityLogoService;
+
+    private final CityNameSearchService cityNameSearchService;
+
+    private final CountryService countryService;
+
+    private final CountryStatsService countryStatsService;
+
+    private final CityImportService cityImportService;
+
+    private final CityExportService cityExportService;
+
+    private final CityMapper cityMapper;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public CityResource(
+        CityRepository cityRepository,
+        CountryRepository countryRepository,
+        CityLogoService cityLogoService,
+        CityNameSearchService cityNameSearchService,
+        CountryService countryService,
+        CountryStatsService countryStatsService,
+        CityImportService cityImportService,
+        CityExportService cityExportService,
+        CityMapper cityMapper,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.countryRepository = countryRepository;
         this.cityRepository = cityRepository;
+        this.cityLogoService = cityLogoService;
+        this.cityNameSearchService = cityNameSearchService;
+        this.countryService = countryService;
+        this.countryStatsService = countryStatsService;
+        this.cityImportService = cityImportService;
+        this.cityExportService = cityExportService;
+        this.cityMapper = cityMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @PostMapping(value = "/cities", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -61,27 +146,62 @@ public class CityResource {
         if (req.getId() != null) {
             throw new BadRequestAlertException("A new city cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        try {
-            city.setName(req.getName());
-            city.setCountry(countryRepository.findCountryById(req.getCountry()));
-            city.setLogo(req.getLogo().getBytes());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        city.setName(req.getName());
+        city.setCountry(countryReference(req.getCountry()));
 
         City result = cityRepository.save(city);
+        countryStatsService.cityMoved(null, result.getCountry());
+        if (hasLogo(req)) {
+            cityLogoService.save(result, req.getLogo());
+        }
+        applicationEventPublisher.publishEvent(new CityChangedEvent(result.getId(), result.getName()));
         return ResponseEntity
             .created(new URI("/api/city/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /cities/bulk} : import cities in bulk, from CSV or newline delimited JSON.
+     * <p>
+     * The body is streamed: CSV with a header line naming a {@code name} and a {@code countryId} column, or one JSON
+     * object per line with a {@code name} and a {@code countryId}. Valid rows are written by chunks, each in its own
+     * transaction, so cities imported before a failure stay imported.
+     *
+     * @param contentType {@code text/csv} or {@code application/x-ndjson}, UTF-8 unless another charset is given.
+     * @param request the request to read the body from.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the summary of the import in body.
+     * @throws IOException if the body couldn't be read.
+     */
+    @PostMapping(value = "/cities/bulk", consumes = { CSV_VALUE, NDJSON_VALUE })
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<CityImportSummaryDTO> importCities(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        HttpServletRequest request
+    ) throws IOException {
+        log.debug("REST request to import cities as {}", contentType);
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset))) {
+            CityImportSummaryDTO summary = MediaType.valueOf(CSV_VALUE).includes(contentType)
+                ? cityImportService.importCsv(reader)
+                : cityImportService.importNdjson(reader);
+            return ResponseEntity.ok().body(summary);
+        }
+    }
+
     /**
      * {@code PUT  /cities/:id} : Updates an existing city.
      *
+     * With an {@code If-Match} header, the city is only updated if it still has one of the given entity tags, so that
+     * concurrent edits don't overwrite each other. The new entity tag is returned, except when the city moved to a
+     * country which isn't loaded: countries are set by reference, and aren't selected just to tag the response.
+     *
      * @param id   the id of the city to save.
+     * @param ifMatch the entity tags the city must still have, or {@code *}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated city,
      * or with status {@code 400 (Bad Request)} if the city is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the city changed since the given entity tags,
      * or with status {@code 500 (Internal Server Error)} if the city couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -89,7 +209,8 @@ public class CityResource {
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.EDITOR + "\")")
     public ResponseEntity<City> updateCity(
         @PathVariable(value = "id", required = false) final Long id,
-        @ModelAttribute CreateCityRequest req
+        @ModelAttribute CreateCityRequest req,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update City : {}, {}", id, req);
         if (req.getId() == null) {
@@ -106,48 +227,151 @@ public class CityResource {
         Optional<City> result = cityRepository
             .findById(req.getId())
             .map(city -> {
+                if (ifMatch != null && !matchesAny(ifMatch, eTag(city))) {
+                    throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+                }
                 if (req.getName() != null) {
                     city.setName(req.getName());
                 }
                 if (req.getCountry() != null) {
-                    city.setCountry(countryRepository.findCountryById(req.getCountry()));
+                    Country previous = city.getCountry();
+                    city.setCountry(countryReference(req.getCountry()));
+                    countryStatsService.cityMoved(previous, city.getCountry());
                 }
 
-                if (!req.getLogo().isEmpty()) {
-                    try {
-                        city.setLogo(req.getLogo().getBytes());
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
+                if (hasLogo(req)) {
+                    cityLogoService.save(city, req.getLogo());
                 }
                 return city;
             })
-            .map(cityRepository::save);
+            // Flushed so that the returned entity tag is the one of the new version
+            .map(cityRepository::saveAndFlush);
+        result.ifPresent(city -> applicationEventPublisher.publishEvent(new CityChangedEvent(city.getId(), city.getName())));
+
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, req.getId().toString());
+        result
+            .filter(city -> city.getCountry() == null || Hibernate.isInitialized(city.getCountry()))
+            .ifPresent(city -> headers.setETag(eTag(city)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, req.getId().toString())
-        );
+    /**
+     * {@code DELETE  /cities/:id} : delete the "id" city, along with its logo.
+     *
+     * @param id the id of the city to delete.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/cities/{id}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> deleteCity(@PathVariable Long id) {
+        log.debug("REST request to delete City : {}", id);
+        City city = cityRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        cityLogoService.delete(id);
+        cityRepository.delete(city);
+        countryStatsService.cityMoved(city.getCountry(), null);
+        applicationEventPublisher.publishEvent(new CityChangedEvent(id, null));
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
+            .build();
     }
 
     /**
      * {@code GET  /cities} : get all the cities.
+     * <p>
+     * With an {@code after} parameter, even empty for the first page, cities are paginated by keyset instead of
+     * offset: sorted by {@code id} or by {@code name}, ascending, without counting them, and with a {@code next}
+     * link carrying the cursor of the last city of the page.
+     * <p>
+     * Pages carry a weak entity tag, so that a client sending it back in {@code If-None-Match} gets a
+     * {@code 304 (Not Modified)} while the page is unchanged.
      *
      * @param pageable the pagination information.
+     * @param after the cursor of the last city of the previous page, for keyset pagination.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cities in body.
      */
     @GetMapping("/cities")
-    public ResponseEntity<List<City>> getAllCities(
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    public ResponseEntity<List<CityDTO>> getAllCities(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "after", required = false) String after
     ) {
+        if (after != null) {
+            return getCitiesAfter(CityCursor.decode(after, isSortedByName(pageable.getSort())), pageable.getPageSize());
+        }
         log.debug("REST request to get a page of city");
-        Page<City> page = cityRepository.findAll(pageable);
+        Page<CityDTO> page = cityRepository.findAllSummaries(pageable).map(cityMapper::citySummaryToCityDTO);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ResponseEntity
+            .ok()
+            .headers(headers)
+            .cacheControl(CacheControl.noCache())
+            .eTag(eTag(page.getContent(), String.valueOf(page.getTotalElements())))
+            .body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /cities/export} : export all the cities, as newline delimited JSON or as CSV.
+     * <p>
+     * Rows are written to the response as they are read from the database, in id order, whatever the number of
+     * cities. The CSV can be imported back through {@code POST /cities/bulk}.
+     *
+     * @param format {@code ndjson}, the default, or {@code csv}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the cities in body, or with status
+     * {@code 400 (Bad Request)} if the format isn't supported.
+     */
+    @GetMapping("/cities/export")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<StreamingResponseBody> exportCities(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        log.debug("REST request to export all Cities as {}", format);
+        boolean csv = "csv".equals(format);
+        if (!csv && !"ndjson".equals(format)) {
+            throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid");
+        }
+        StreamingResponseBody body = csv ? cityExportService::exportCsv : cityExportService::exportNdjson;
+        return ResponseEntity
+            .ok()
+            .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.valueOf(NDJSON_VALUE))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("cities." + format).build().toString())
+            .body(body);
+    }
+
+    /**
+     * {@code GET  /cities?ids=:ids} : get the cities with the given ids, at most {@value #MAX_IDS}, in the order of
+     * the ids.
+     * <p>
+     * Cities in the second level cache are read from it, the others are selected in a single query. Unknown ids are
+     * skipped, repeated ids return their city once.
+     *
+     * @param ids the ids of the cities to get, comma separated.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cities in body, or with status
+     * {@code 400 (Bad Request)} if there are too many ids or an id isn't a number.
+     */
+    @GetMapping(value = "/cities", params = "ids")
+    public ResponseEntity<List<City>> getCitiesByIds(@RequestParam("ids") String ids) {
+        log.debug("REST request to get Cities : {}", ids);
+        // Counted before any id is parsed, so that an oversized request is rejected without converting it
+        if (StringUtils.countOccurrencesOf(ids, ",") >= MAX_IDS) {
+            throw new BadRequestAlertException("At most " + MAX_IDS + " ids can be requested at once", ENTITY_NAME, "idstoomany");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>();
+        for (String id : StringUtils.commaDelimitedListToStringArray(ids)) {
+            if (StringUtils.hasText(id)) {
+                try {
+                    distinctIds.add(Long.valueOf(id.trim()));
+                } catch (NumberFormatException e) {
+                    throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idinvalid");
+                }
+            }
+        }
+        return ResponseEntity.ok().body(cityRepository.findAllByIdInOrder(new ArrayList<>(distinctIds)));
     }
 
     /**
      * {@code GET  /cities/:id} : get the "id" city.
+     * <p>
+     * The city carries its entity tag, so that a client sending it back in {@code If-None-Match} gets a
+     * {@code 304 (Not Modified)}, without the city being serialized, until the city or its country changes. No
+     * {@code Last-Modified} date is sent, as the country embedded in the body has none.
      *
      * @param id the id of the city to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the city, or with status {@code 404 (Not Found)}.
@@ -155,20 +379,262 @@ public class CityResource {
     @GetMapping("/cities/{id}")
     public ResponseEntity<City> getCity(@PathVariable Long id) {
         log.debug("REST request to get City : {}", id);
-        Optional<City> city = cityRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(city);
+        City city = cityRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag(city)).body(city);
     }
 
+    /**
+     * {@code GET  /cities/searchByName} : search the cities whose name contains the given text, ignoring case and
+     * accents, the best matches first.
+     * <p>
+     * Results are returned by slices of at most {@value #MAX_SEARCH_LIMIT} cities, with a {@code next} link while
+     * there are more, up to the first {@value #MAX_SEARCH_DEPTH} matches.
+     *
+     * @param name the text to search, texts shorter than 3 characters only match the start of words.
+     * @param pageable the pagination information, the sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the slice of matching cities in body.
+     */
     @GetMapping("/cities/searchByName")
-    public ResponseEntity<List<City>> searchCitiesByName(@RequestParam("name") String name) {
+    public ResponseEntity<List<CityDTO>> searchCitiesByName(
+        @RequestParam("name") String name,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
         log.debug("REST request to search city : {}", name);
-        List<City> cities = cityRepository.findByNameContainingIgnoreCase(name);
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_SEARCH_LIMIT));
+        Slice<CityDTO> slice;
+        if (page.getOffset() >= MAX_SEARCH_DEPTH) {
+            slice = new SliceImpl<>(Collections.emptyList(), page, false);
+        } else {
+            // One more match than requested tells whether there is a next slice
+            int limit = (int) page.getOffset() + page.getPageSize() + 1;
+            slice =
+                cityNameSearchService
+                    .search(name, limit)
+                    .map(ids -> toSlice(ids, page))
+                    .orElseGet(() -> cityRepository.findSummariesByNameContainingIgnoreCase(name, page).map(cityMapper::citySummaryToCityDTO));
+        }
+        return ResponseEntity.ok().headers(generateSearchHttpHeaders(slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /cities/suggest} : suggest the cities whose name starts with the given prefix, ignoring case and
+     * accents, the shortest names first.
+     *
+     * @param prefix the start of the name.
+     * @param limit the maximum number of cities to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of suggested cities in body.
+     */
+    @GetMapping("/cities/suggest")
+    public ResponseEntity<List<CityDTO>> suggestCities(
+        @RequestParam("prefix") String prefix,
+        @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to suggest cities : {}", prefix);
+        int max = Math.max(0, Math.min(limit, MAX_SEARCH_LIMIT));
+        if (max == 0) {
+            return ResponseEntity.ok().body(Collections.emptyList());
+        }
+        List<CityDTO> cities = cityNameSearchService
+            .suggest(prefix, max)
+            .map(this::findAllInOrder)
+            .orElseGet(() ->
+                cityMapper.citySummariesToCityDTOs(cityRepository.findSummariesByNameStartingWith(prefix, PageRequest.of(0, max)))
+            );
         return ResponseEntity.ok().body(cities);
     }
 
+    /**
+     * {@code GET  /cities/searchByCountryName} : search the cities whose country name contains the given text, ignoring
+     * case and accents.
+     * <p>
+     * The matching countries are found in memory, the cities are then read through the index on their country.
+     * <p>
+     * Results are returned by slices of at most {@value #MAX_SEARCH_LIMIT} cities, with a {@code next} link while
+     * there are more, up to the first {@value #MAX_SEARCH_DEPTH} matches.
+     *
+     * @param countryName the text to search.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the slice of matching cities in body.
+     */
     @GetMapping("/cities/searchByCountryName")
-    public ResponseEntity<List<City>> searchCitiesByCountryName(@RequestParam("countryName") String countryName) {
-        List<City> cities = cityRepository.findByCountryNameContainingIgnoreCase(countryName);
-        return ResponseEntity.ok().body(cities);
+    public ResponseEntity<List<CityDTO>> searchCitiesByCountryName(
+        @RequestParam("countryName") String countryName,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search city by country : {}", countryName);
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_SEARCH_LIMIT), pageable.getSort());
+        List<Long> countryIds = countryService.findIdsByNameContaining(countryName);
+        Slice<CityDTO> slice = countryIds.isEmpty() || page.getOffset() >= MAX_SEARCH_DEPTH
+            ? new SliceImpl<>(Collections.emptyList(), page, false)
+            : cityRepository.findSummariesByCountryIdIn(countryIds, page).map(cityMapper::citySummaryToCityDTO);
+        return ResponseEntity.ok().headers(generateSearchHttpHeaders(slice)).body(slice.getContent());
+    }
+
+    private ResponseEntity<List<CityDTO>> getCitiesAfter(CityCursor cursor, int size) {
+        log.debug("REST request to get cities after : {}", cursor);
+        // One more city than requested tells whether there is a next page
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<CitySummary> summaries;
+        if (!cursor.byName) {
+            summaries = cityRepository.findSummariesByIdAfter(cursor.id, limit);
+        } else if (cursor.name != null) {
+            summaries = cityRepository.findSummariesByNameAfter(cursor.name, cursor.id, limit);
+        } else {
+            summaries = cityRepository.findSummariesByNullNameAfter(cursor.id, limit);
+        }
+        List<CityDTO> cities = cityMapper.citySummariesToCityDTOs(summaries);
+        String next = null;
+        if (cities.size() > size) {
+            cities = cities.subList(0, size);
+            CityDTO last = cities.get(size - 1);
+            next = new CityCursor(cursor.byName, last.getId(), last.getName()).encode();
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), next, size);
+        return ResponseEntity.ok().headers(headers).cacheControl(CacheControl.noCache()).eTag(eTag(cities, next)).body(cities);
+    }
+
+    private Slice<CityDTO> toSlice(List<Long> ids, Pageable page) {
+        int from = (int) Math.min(page.getOffset(), ids.size());
+        int to = Math.min(from + page.getPageSize(), ids.size());
+        return new SliceImpl<>(findAllInOrder(ids.subList(from, to)), page, ids.size() > to);
+    }
+
+    private static HttpHeaders generateSearchHttpHeaders(Slice<CityDTO> slice) {
+        boolean hasNext = slice.hasNext() && slice.getPageable().next().getOffset() < MAX_SEARCH_DEPTH;
+        return PaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice, hasNext);
+    }
+
+    /**
+     * @return the cities with the given ids, in the same order.
+     */
+    private List<CityDTO> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, CityDTO> cities = new HashMap<>();
+        for (CitySummary city : cityRepository.findSummariesByIdIn(ids)) {
+            cities.put(city.getId(), cityMapper.citySummaryToCityDTO(city));
+        }
+        return ids.stream().map(cities::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * The strong entity tag of a city, changed by any update of the city or of its country.
+     */
+    private static String eTag(City city) {
+        Country country = city.getCountry();
+        return "\"" + city.getVersion() + (country != null ? "." + country.getVersion() : "") + "\"";
+    }
+
+    /**
+     * The weak entity tag of a list of cities, computed from their fields rather than from their serialized form.
+     *
+     * @param position what the pagination headers depend on besides the cities, like the total number of cities.
+     */
+    private static String eTag(List<CityDTO> cities, String position) {
+        StringBuilder content = new StringBuilder().append(position);
+        for (CityDTO city : cities) {
+            content
+                .append('\n')
+                .append(city.getId())
+                .append('\t')
+                .append(city.getName())
+                .append('\t')
+                .append(city.getCountryId())
+                .append('\t')
+                .append(city.getCountryName())
+                .append('\t')
+                .append(city.getLogoHash());
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Whether an {@code If-Match} header matches the given strong entity tag, weak tags never matching.
+     */
+    private static boolean matchesAny(String ifMatch, String eTag) {
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if ("*".equals(trimmed) || eTag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSortedByName(Sort sort) {
+        if (sort.isUnsorted() || sort.equals(Sort.by("id"))) {
+            return false;
+        }
+        if (sort.equals(Sort.by("name")) || sort.equals(Sort.by("name", "id"))) {
+            return true;
+        }
+        throw new BadRequestAlertException("Keyset pagination only supports ascending id or name order", ENTITY_NAME, "sortinvalid");
+    }
+
+    /**
+     * The position of a city in keyset pagination, encoded as an opaque URL-safe string.
+     */
+    private static final class CityCursor {
+
+        private final boolean byName;
+
+        private final long id;
+
+        private final String name;
+
+        private CityCursor(boolean byName, long id, String name) {
+            this.byName = byName;
+            this.id = id;
+            this.name = name;
+        }
+
+        /**
+         * Decode the given cursor, the empty cursor being the position before the first city.
+         */
+        static CityCursor decode(String cursor, boolean byName) {
+            if (cursor.isEmpty()) {
+                return new CityCursor(byName, 0, null);
+            }
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                if (value.charAt(0) != (byName ? 'n' : 'i')) {
+                    throw new IllegalArgumentException("Cursor of another sort order");
+                }
+                int separator = value.indexOf(':');
+                long id = Long.parseLong(separator < 0 ? value.substring(1) : value.substring(1, separator));
+                return new CityCursor(byName, id, separator < 0 ? null : value.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+            }
+        }
+
+        String encode() {
+            String value = byName ? "n" + id + (name != null ? ":" + name : "") : "i" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String toString() {
+            return "CityCursor{byName=" + byName + ", id=" + id + ", name='" + name + "'}";
+        }
+    }
+
+    /**
+     * A reference to the given country, checked against the in-memory country ids rather than loaded, so that
+     * writing a city doesn't select its country.
+     */
+    private Country countryReference(Long countryId) {
+        if (countryId == null) {
+            return null;
+        }
+        if (!countryService.existsById(countryId)) {
+            throw new BadRequestAlertException("Unknown country", ENTITY_NAME, "countrynotfound");
+        }
+        return countryRepository.getReferenceById(countryId);
+    }
+
+    private static boolean hasLogo(CreateCityRequest req) {
+        return req.getLogo() != null && !req.getLogo().isEmpty();
     }
 }
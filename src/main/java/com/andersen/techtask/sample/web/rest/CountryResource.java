@@ -1,13 +1,26 @@
 package com.andersen.techtask.sample.web.rest;
 
 import com.andersen.techtask.sample.domain.Country;
+import com.andersen.techtask.sample.repository.CityRepository;
 import com.andersen.techtask.sample.repository.CountryRepository;
+import com.andersen.techtask.sample.service.CountryService;
+import com.andersen.techtask.sample.service.CountryStatsService;
+import com.andersen.techtask.sample.service.dto.CityDTO;
+import com.andersen.techtask.sample.service.dto.CountryStatsDTO;
+import com.andersen.techtask.sample.service.mapper.CityMapper;
+import com.andersen.techtask.sample.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 
@@ -16,26 +29,89 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class CountryResource {
 
     private final Logger log = LoggerFactory.getLogger(CountryResource.class);
 
+    private final CountryService countryService;
+
+    private final CountryStatsService countryStatsService;
+
     private final CountryRepository countryRepository;
 
-    public CountryResource(CountryRepository countryRepository) {
+    private final CityRepository cityRepository;
+
+    private final CityMapper cityMapper;
+
+    public CountryResource(
+        CountryService countryService,
+        CountryStatsService countryStatsService,
+        CountryRepository countryRepository,
+        CityRepository cityRepository,
+        CityMapper cityMapper
+    ) {
+        this.countryService = countryService;
+        this.countryStatsService = countryStatsService;
         this.countryRepository = countryRepository;
+        this.cityRepository = cityRepository;
+        this.cityMapper = cityMapper;
     }
 
     /**
      * {@code GET  /countries} : get all the countries.
+     * <p>
+     * The list is served pre-serialized from memory. It carries an ETag, so that a client sending it back in
+     * {@code If-None-Match} gets a {@code 304 (Not Modified)} until a country changes.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of operations in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of countries in body.
      */
     @GetMapping("/countries")
-    public ResponseEntity<List<Country>> getAllCountries() {
+    public ResponseEntity<byte[]> getAllCountries() {
         log.debug("REST request to get all Countries");
-        List<Country> countryList = countryRepository.findAll();
-        return ResponseEntity.ok().body(countryList);
+        CountryService.SerializedCountries countries = countryService.findAllSerialized();
+        return ResponseEntity
+            .ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noCache())
+            .eTag(countries.getETag())
+            .body(countries.getJson());
+    }
+
+    /**
+     * {@code GET  /countries/stats} : get the aggregates of all the countries, like their number of cities.
+     * <p>
+     * The aggregates are maintained along with the cities, so this reads one row per country whatever the number of
+     * cities.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of aggregates in body.
+     */
+    @GetMapping("/countries/stats")
+    public ResponseEntity<List<CountryStatsDTO>> getAllCountryStats() {
+        log.debug("REST request to get the stats of all Countries");
+        return ResponseEntity.ok().body(countryStatsService.findAll());
+    }
+
+    /**
+     * {@code GET  /countries/:id/cities} : get a page of the cities of the "id" country.
+     *
+     * @param id the id of the country.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cities in body, or with status
+     * {@code 404 (Not Found)} if the country doesn't exist.
+     */
+    @GetMapping("/countries/{id}/cities")
+    public ResponseEntity<List<CityDTO>> getCountryCities(
+        @PathVariable Long id,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the cities of Country : {}", id);
+        if (!countryService.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        Page<CityDTO> page = cityRepository
+            .findAllByCountry(pageable, countryRepository.getReferenceById(id))
+            .map(cityMapper::citySummaryToCityDTO);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
@@ -0,0 +1,60 @@
+package com.andersen.techtask.sample.web.rest;
+
+import com.andersen.techtask.sample.security.AuthoritiesConstants;
+import com.andersen.techtask.sample.service.CityLogoThumbnailService;
+import com.andersen.techtask.sample.service.storage.LogoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * REST controller for administrating the {@link LogoStorage}.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class LogoStorageResource {
+
+    private final Logger log = LoggerFactory.getLogger(LogoStorageResource.class);
+
+    private final LogoStorage logoStorage;
+
+    private final CityLogoThumbnailService cityLogoThumbnailService;
+
+    public LogoStorageResource(LogoStorage logoStorage, CityLogoThumbnailService cityLogoThumbnailService) {
+        this.logoStorage = logoStorage;
+        this.cityLogoThumbnailService = cityLogoThumbnailService;
+    }
+
+    /**
+     * {@code POST  /admin/logo-storage/import} : move the logo content still kept in the database into the configured storage.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of moved contents in body.
+     * @throws IOException if some content couldn't be moved.
+     */
+    @PostMapping("/logo-storage/import")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Map<String, Integer>> importFromDatabase() throws IOException {
+        log.debug("REST request to move logo content out of the database");
+        return ResponseEntity.ok(Collections.singletonMap("imported", logoStorage.importFromDatabase()));
+    }
+
+    /**
+     * {@code POST  /admin/logo-storage/thumbnails} : generate the missing thumbnails, like the ones of logos stored before thumbnails existed.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of generated thumbnails in body.
+     */
+    @PostMapping("/logo-storage/thumbnails")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Map<String, Integer>> generateMissingThumbnails() {
+        log.debug("REST request to generate missing logo thumbnails");
+        return ResponseEntity.ok(Collections.singletonMap("generated", cityLogoThumbnailService.generateMissing()));
+    }
+}
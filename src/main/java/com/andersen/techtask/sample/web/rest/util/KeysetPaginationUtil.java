@@ -0,0 +1,36 @@
+package com.andersen.techtask.sample.web.rest.util;
+
+import java.text.MessageFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination, where each page is requested with the opaque cursor of the last
+ * element of the previous page instead of a page number.
+ * <p>
+ * Only a {@code next} link is generated: the total count is never computed, so there is no {@code last} link.
+ */
+public final class KeysetPaginationUtil {
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {
+    }
+
+    public static HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor, int pageSize) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(HttpHeaders.LINK, MessageFormat.format(HEADER_LINK_FORMAT, prepareCursorUri(uriBuilder, nextCursor, pageSize), "next"));
+        }
+        return headers;
+    }
+
+    private static String prepareCursorUri(UriComponentsBuilder uriBuilder, String cursor, int pageSize) {
+        return uriBuilder
+            .replaceQueryParam("after", cursor)
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .replaceQueryParam("page")
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+    }
+}
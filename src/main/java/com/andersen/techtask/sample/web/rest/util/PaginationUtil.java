@@ -2,6 +2,7 @@ package com.andersen.techtask.sample.web.rest.util;
 
 import java.text.MessageFormat;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -31,6 +32,32 @@ public final class PaginationUtil {
         return headers;
     }
 
+    /**
+     * Generate the {@code Link} header of a {@link Slice}, which has no total: only the {@code prev} and
+     * {@code next} links are known.
+     */
+    public static <T> HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, boolean hasNext) {
+        HttpHeaders headers = new HttpHeaders();
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        StringBuilder link = new StringBuilder();
+        if (hasNext) {
+            link.append(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next"));
+        }
+
+        if (pageNumber > 0) {
+            if (link.length() > 0) {
+                link.append(",");
+            }
+            link.append(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev"));
+        }
+
+        if (link.length() > 0) {
+            headers.add("Link", link.toString());
+        }
+        return headers;
+    }
+
     private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
         return MessageFormat.format("<{0}>; rel=\"{1}\"", preparePageUri(uriBuilder, pageNumber, pageSize), relType);
     }
@@ -8,4 +8,13 @@ export interface ICity {
   logo?: string | null;
 }
 
+export interface ICityListItem {
+  id: number;
+  name?: string | null;
+  countryId?: number | null;
+  countryName?: string | null;
+  logoUrl?: string | null;
+  logoHash?: string | null;
+}
+
 export type NewCity = Omit<ICity, 'id'> & { id: null };
@@ -5,7 +5,7 @@ import {combineLatest} from 'rxjs';
 
 import {ITEMS_PER_PAGE} from 'app/config/pagination.constants';
 import {ASC, DESC, SORT} from 'app/config/navigation.constants';
-import {ICity} from '../city.model';
+import {ICityListItem} from '../city.model';
 import {CityService} from "../service/city.service";
 
 @Component({
@@ -13,7 +13,7 @@ import {CityService} from "../service/city.service";
   templateUrl: './city.component.html',
 })
 export class CityComponent implements OnInit {
-  cities: ICity[] | null = null;
+  cities: ICityListItem[] | null = null;
   isLoading = false;
   totalItems = 0;
   itemsPerPage = ITEMS_PER_PAGE;
@@ -35,7 +35,11 @@ export class CityComponent implements OnInit {
     this.userService.update({ ...user, activated: isActivated }).subscribe(() => this.loadAll());
   }*/
 
-  trackIdentity(_index: number, item: ICity): number {
+  logoUrl(city: ICityListItem): string {
+    return this.cityService.getLogoThumbnailUrl(city);
+  }
+
+  trackIdentity(_index: number, item: ICityListItem): number {
     return item.id!;
   }
 
@@ -59,7 +63,7 @@ export class CityComponent implements OnInit {
         sort: this.sort(),
       })
       .subscribe({
-        next: (res: HttpResponse<ICity[]>) => {
+        next: (res: HttpResponse<ICityListItem[]>) => {
           this.isLoading = false;
           this.onSuccess(res.body, res.headers);
         },
@@ -96,7 +100,7 @@ export class CityComponent implements OnInit {
     return result;
   }
 
-  private onSuccess(cities: ICity[] | null, headers: HttpHeaders): void {
+  private onSuccess(cities: ICityListItem[] | null, headers: HttpHeaders): void {
     this.totalItems = Number(headers.get('X-Total-Count'));
     this.cities = cities;
   }
@@ -5,13 +5,13 @@ import { Observable } from 'rxjs';
 import { isPresent } from 'app/core/util/operators';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
 import { createRequestOption } from 'app/core/request/request-util';
-import { ICity, NewCity } from '../city.model';
+import { ICity, ICityListItem, NewCity } from '../city.model';
 import {ICountry} from "../../country/country.model";
 
 export type PartialUpdateCity = Partial<ICity> & Pick<ICity, 'id'>;
 
 export type EntityResponseType = HttpResponse<ICity>;
-export type EntityArrayResponseType = HttpResponse<ICity[]>;
+export type EntityArrayResponseType = HttpResponse<ICityListItem[]>;
 
 @Injectable({ providedIn: 'root' })
 export class CityService {
@@ -61,7 +61,7 @@ export class CityService {
 
   query(req?: any): Observable<EntityArrayResponseType> {
     const options = createRequestOption(req);
-    return this.http.get<ICity[]>(this.resourceUrl, { params: options, observe: 'response' });
+    return this.http.get<ICityListItem[]>(this.resourceUrl, { params: options, observe: 'response' });
   }
 
   queryCountries(): Observable<HttpResponse<ICountry[]>> {
@@ -72,6 +72,14 @@ export class CityService {
     return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
 
+  getLogoUrl(city: Pick<ICity, 'id'>): string {
+    return `${this.resourceUrl}/${this.getCityIdentifier(city)}/logo`;
+  }
+
+  getLogoThumbnailUrl(city: Pick<ICityListItem, 'id' | 'logoHash'>): string {
+    return `${this.getLogoUrl(city)}?size=thumb&v=${city.logoHash ?? ''}`;
+  }
+
   getCityIdentifier(city: Pick<ICity, 'id'>): number {
     return city.id;
   }
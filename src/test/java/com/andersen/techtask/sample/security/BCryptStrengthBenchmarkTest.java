@@ -0,0 +1,55 @@
+package com.andersen.techtask.sample.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Measures the time of a login per BCrypt strength, to choose {@code application.password-encoder.strength}.
+ * <p>
+ * Only run on demand, on the hardware of the servers: {@code ./mvnw test -Dtest=BCryptStrengthBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BCryptStrengthBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptStrengthBenchmarkTest.class);
+
+    private static final int MIN_STRENGTH = 8;
+
+    private static final int MAX_STRENGTH = 14;
+
+    private static final int WARMUP_ITERATIONS = 3;
+
+    private static final int ITERATIONS = 7;
+
+    @Test
+    void measureMatchesPerStrength() {
+        String password = "correct horse battery staple";
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            String hash = encoder.encode(password);
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                assertThat(encoder.matches(password, hash)).isTrue();
+            }
+            long[] nanos = new long[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                assertThat(encoder.matches(password, hash)).isTrue();
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            log.info(
+                "BCrypt strength {}: median {} ms, min {} ms, max {} ms per login",
+                strength,
+                nanos[ITERATIONS / 2] / 1_000_000,
+                nanos[0] / 1_000_000,
+                nanos[ITERATIONS - 1] / 1_000_000
+            );
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.andersen.techtask.sample.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.andersen.techtask.sample.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BoundedPasswordEncoderTest {
+
+    private MeterRegistry meterRegistry;
+
+    private SecurityMetersService securityMetersService;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        securityMetersService = new SecurityMetersService(meterRegistry);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testDelegatesOnPoolThread() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new ThreadNamePasswordEncoder(), 1, 1, securityMetersService);
+
+        assertThat(encoder.encode("password")).startsWith("password-encoder-");
+        assertThat(encoder.matches("password", "password")).isTrue();
+        assertThat(meterRegistry.get(SecurityMetersService.PASSWORD_ENCODER_QUEUE_WAIT_METER_NAME).timer().count()).isEqualTo(2);
+        encoder.destroy();
+    }
+
+    @Test
+    void testRejectsBeyondQueueCapacity() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+            new BlockingPasswordEncoder(started, release),
+            1,
+            1,
+            securityMetersService
+        );
+
+        // One password hashed, one waiting for the thread
+        Future<String> running = callers.submit(() -> encoder.encode("running"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = callers.submit(() -> encoder.encode("queued"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queueSize(encoder) == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(queueSize(encoder)).isEqualTo(1);
+
+        assertThatThrownBy(() -> encoder.encode("rejected")).isInstanceOf(PasswordEncoderLimitExceededException.class);
+        assertThat(meterRegistry.get(SecurityMetersService.PASSWORD_ENCODER_REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        encoder.destroy();
+    }
+
+    @Test
+    void testRethrowsDelegateException() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new ThreadNamePasswordEncoder(), 1, 1, securityMetersService);
+
+        assertThatThrownBy(() -> encoder.matches("password", null)).isInstanceOf(IllegalArgumentException.class);
+        encoder.destroy();
+    }
+
+    private static int queueSize(BoundedPasswordEncoder encoder) {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Encodes a password as the name of the thread encoding it.
+     */
+    private static class ThreadNamePasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (encodedPassword == null) {
+                throw new IllegalArgumentException("No encoded password");
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+
+    /**
+     * Encodes a password as itself, once released.
+     */
+    private static class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch release;
+
+        BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
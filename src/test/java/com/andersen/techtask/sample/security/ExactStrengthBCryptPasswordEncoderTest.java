@@ -0,0 +1,35 @@
+package com.andersen.techtask.sample.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class ExactStrengthBCryptPasswordEncoderTest {
+
+    private final ExactStrengthBCryptPasswordEncoder encoder = new ExactStrengthBCryptPasswordEncoder(5);
+
+    @Test
+    void testKeepsHashOfSameStrength() {
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+    }
+
+    @Test
+    void testUpgradesHashOfLowerStrength() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+    }
+
+    @Test
+    void testUpgradesHashOfHigherStrength() {
+        String hash = new BCryptPasswordEncoder(6).encode("password");
+
+        assertThat(encoder.matches("password", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isTrue();
+    }
+
+    @Test
+    void testKeepsEmptyHash() {
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+    }
+}
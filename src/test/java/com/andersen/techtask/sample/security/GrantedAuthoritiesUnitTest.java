@@ -0,0 +1,47 @@
+package com.andersen.techtask.sample.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Test class for the {@link GrantedAuthorities} utility class.
+ */
+class GrantedAuthoritiesUnitTest {
+
+    @Test
+    void testOfReturnsCanonicalInstance() {
+        GrantedAuthority admin = GrantedAuthorities.of(AuthoritiesConstants.ADMIN);
+
+        assertThat(admin).isEqualTo(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN));
+        assertThat(GrantedAuthorities.of(new String(AuthoritiesConstants.ADMIN))).isSameAs(admin);
+        assertThat(GrantedAuthorities.of("ROLE_CUSTOM")).isSameAs(GrantedAuthorities.of("ROLE_CUSTOM"));
+    }
+
+    @Test
+    void testParseSplitsAndTrimsNames() {
+        List<GrantedAuthority> authorities = GrantedAuthorities.parse(" ROLE_ADMIN ,, ROLE_USER,");
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(authorities.get(0)).isSameAs(GrantedAuthorities.of(AuthoritiesConstants.ADMIN));
+    }
+
+    @Test
+    void testParseEmptyClaim() {
+        assertThat(GrantedAuthorities.parse("")).isEmpty();
+        assertThat(GrantedAuthorities.parse(" , ")).isEmpty();
+    }
+
+    @Test
+    void testParseReturnsSharedImmutableList() {
+        List<GrantedAuthority> authorities = GrantedAuthorities.parse("ROLE_ADMIN,ROLE_EDITOR");
+
+        assertThat(GrantedAuthorities.parse(new String("ROLE_ADMIN,ROLE_EDITOR"))).isSameAs(authorities);
+        assertThatThrownBy(() -> authorities.add(GrantedAuthorities.of(AuthoritiesConstants.USER)))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
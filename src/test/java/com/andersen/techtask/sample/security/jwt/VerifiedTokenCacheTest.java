@@ -0,0 +1,60 @@
+package com.andersen.techtask.sample.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import java.util.Collections;
+import org.springframework.security.core.userdetails.User;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void testGetCachedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        User principal = principal("user");
+
+        cache.put("token", principal, NOW + 1);
+
+        assertThat(cache.get("token", NOW)).isSameAs(principal);
+        assertThat(cache.get("other", NOW)).isNull();
+    }
+
+    @Test
+    void testExpiredTokenIsRemoved() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        cache.put("token", principal("user"), NOW);
+
+        assertThat(cache.get("token", NOW)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(64);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("token" + i, principal("user"), NOW + 1);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(64);
+        assertThat(cache.get("token9999", NOW)).isNotNull();
+    }
+
+    @Test
+    void testLeastRecentlyUsedTokenIsEvicted() {
+        // A single entry per segment, so that tokens of the same segment evict each other
+        VerifiedTokenCache cache = new VerifiedTokenCache(1);
+        cache.put("token", principal("user"), NOW + 1);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("other" + i, principal("user"), NOW + 1);
+        }
+
+        assertThat(cache.get("token", NOW)).isNull();
+        assertThat(cache.size()).isLessThanOrEqualTo(16);
+    }
+
+    private static User principal(String username) {
+        return new User(username, "", Collections.emptyList());
+    }
+}
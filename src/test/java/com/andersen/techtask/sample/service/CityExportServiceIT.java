@@ -0,0 +1,73 @@
+package com.andersen.techtask.sample.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.andersen.techtask.sample.IntegrationTest;
+import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.domain.Country;
+import com.andersen.techtask.sample.repository.CityRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link CityExportService}.
+ */
+@IntegrationTest
+@Transactional
+class CityExportServiceIT {
+
+    @Autowired
+    private CityExportService cityExportService;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private City city;
+
+    @BeforeEach
+    public void init() {
+        Country country = new Country().name("Country, \"Name\"");
+        em.persist(country);
+        city = new City().country(country);
+        city.setName("ExportedCity");
+        cityRepository.saveAndFlush(city);
+    }
+
+    @Test
+    void testExportNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        cityExportService.exportNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize((int) cityRepository.count());
+        assertThat(lines)
+            .contains(
+                "{\"id\":" +
+                city.getId() +
+                ",\"name\":\"ExportedCity\",\"countryId\":" +
+                city.getCountry().getId() +
+                ",\"countryName\":\"Country, \\\"Name\\\"\",\"logoUrl\":null,\"logoHash\":null}"
+            );
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        cityExportService.exportCsv(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo("id,name,countryId,countryName,logoHash");
+        assertThat(lines).hasSize((int) cityRepository.count() + 1);
+        assertThat(lines).contains(city.getId() + ",ExportedCity," + city.getCountry().getId() + ",\"Country, \"\"Name\"\"\",");
+    }
+}
@@ -0,0 +1,79 @@
+package com.andersen.techtask.sample.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CityImportReaderTest {
+
+    @Test
+    void testCsv() throws IOException {
+        List<CityImportReader.Row> rows = readAll(
+            CityImportReader.csv(reader("﻿id;name;countryId\n1;Paris;3\n\n2;\"Saint-Denis; Réunion\";\n3;\"Say \"\"hi\"\"\";x\n"))
+        );
+
+        assertThat(rows).hasSize(3);
+        assertRow(rows.get(0), 2, "Paris", 3L);
+        assertRow(rows.get(1), 4, "Saint-Denis; Réunion", null);
+        assertThat(rows.get(2).line).isEqualTo(5);
+        assertThat(rows.get(2).error).isEqualTo("Invalid country id: x");
+    }
+
+    @Test
+    void testCsvWithCommasAndCountryIdColumn() throws IOException {
+        List<CityImportReader.Row> rows = readAll(CityImportReader.csv(reader("name,country_id\nLyon,7\n\"unterminated,7\n")));
+
+        assertRow(rows.get(0), 2, "Lyon", 7L);
+        assertThat(rows.get(1).error).isEqualTo("Unterminated quoted value");
+    }
+
+    @Test
+    void testCsvWithoutNameColumn() throws IOException {
+        List<CityImportReader.Row> rows = readAll(CityImportReader.csv(reader("city;countryId\nLyon;7\n")));
+
+        assertThat(rows).extracting(row -> row.error).containsExactly("Missing name column in header", "Missing name column in header");
+    }
+
+    @Test
+    void testNdjson() throws IOException {
+        List<CityImportReader.Row> rows = readAll(
+            CityImportReader.ndjson(
+                reader("{\"name\":\"Paris\",\"countryId\":3}\n{\"name\":\"Nice\"}\n{\"name\":\n[]\n{\"name\":\"Lyon\",\"countryId\":1.5}\n"),
+                new ObjectMapper()
+            )
+        );
+
+        assertThat(rows).hasSize(5);
+        assertRow(rows.get(0), 1, "Paris", 3L);
+        assertRow(rows.get(1), 2, "Nice", null);
+        assertThat(rows.get(2).error).startsWith("Invalid JSON");
+        assertThat(rows.get(3).error).isEqualTo("Not a JSON object");
+        assertThat(rows.get(4).error).isEqualTo("Invalid country id: 1.5");
+    }
+
+    private static void assertRow(CityImportReader.Row row, long line, String name, Long countryId) {
+        assertThat(row.error).isNull();
+        assertThat(row.line).isEqualTo(line);
+        assertThat(row.name).isEqualTo(name);
+        assertThat(row.countryId).isEqualTo(countryId);
+    }
+
+    private static BufferedReader reader(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+
+    private static List<CityImportReader.Row> readAll(CityImportReader reader) throws IOException {
+        List<CityImportReader.Row> rows = new ArrayList<>();
+        CityImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,101 @@
+package com.andersen.techtask.sample.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.andersen.techtask.sample.IntegrationTest;
+import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.domain.Country;
+import com.andersen.techtask.sample.domain.CountryStats;
+import com.andersen.techtask.sample.repository.CityRepository;
+import com.andersen.techtask.sample.repository.CountryStatsRepository;
+import com.andersen.techtask.sample.service.dto.CityImportSummaryDTO;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link CityImportService}.
+ */
+@IntegrationTest
+@Transactional
+class CityImportServiceIT {
+
+    @Autowired
+    private CityImportService cityImportService;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private CountryStatsRepository countryStatsRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Country country;
+
+    @BeforeEach
+    public void init() {
+        country = new Country().name("CountryName");
+        em.persist(country);
+        em.flush();
+        countryService.refresh();
+    }
+
+    @Test
+    void testImportCsv() throws Exception {
+        int databaseSizeBeforeImport = cityRepository.findAll().size();
+
+        CityImportSummaryDTO summary = cityImportService.importCsv(
+            reader("name;countryId\nImportedCity1;" + country.getId() + "\nImportedCity2;\n;" + country.getId() + "\nImportedCity3;" + Long.MAX_VALUE + "\n")
+        );
+
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(summary.getFailed()).isEqualTo(2);
+        assertThat(summary.getFailures()).extracting(CityImportSummaryDTO.RowFailure::getLine).containsExactly(4L, 5L);
+        em.clear();
+        List<City> cities = cityRepository.findAll();
+        assertThat(cities).hasSize(databaseSizeBeforeImport + 2);
+        assertThat(cities)
+            .filteredOn(city -> "ImportedCity1".equals(city.getName()))
+            .singleElement()
+            .extracting(city -> city.getCountry().getId())
+            .isEqualTo(country.getId());
+        assertThat(countryStatsRepository.findById(country.getId())).get().extracting(CountryStats::getCityCount).isEqualTo(1L);
+    }
+
+    @Test
+    void testImportNdjson() throws Exception {
+        int databaseSizeBeforeImport = cityRepository.findAll().size();
+        long maxIdBeforeImport = em.createQuery("select coalesce(max(c.id), 0L) from City c", Long.class).getSingleResult();
+
+        CityImportSummaryDTO summary = cityImportService.importNdjson(
+            reader("{\"name\":\"ImportedCity1\",\"countryId\":" + country.getId() + "}\n{\"name\":\"ImportedCity2\"}\nnot json\n")
+        );
+
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(summary.getFailed()).isEqualTo(1);
+        em.clear();
+        List<City> cities = cityRepository.findAll();
+        assertThat(cities).hasSize(databaseSizeBeforeImport + 2);
+        // The batch gets consecutive ids from the sequence, after the existing cities
+        assertThat(cities)
+            .filteredOn(city -> city.getId() > maxIdBeforeImport)
+            .extracting(City::getName)
+            .containsExactlyInAnyOrder("ImportedCity1", "ImportedCity2");
+        Long firstId = cities.stream().filter(city -> "ImportedCity1".equals(city.getName())).findFirst().map(City::getId).orElseThrow();
+        assertThat(cities).filteredOn(city -> "ImportedCity2".equals(city.getName())).extracting(City::getId).containsExactly(firstId + 1);
+    }
+
+    private static BufferedReader reader(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+}
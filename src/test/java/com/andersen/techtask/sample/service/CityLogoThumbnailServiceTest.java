@@ -0,0 +1,47 @@
+package com.andersen.techtask.sample.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CityLogoThumbnailServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCreateThumbnailKeepsAspectRatio() throws Exception {
+        Path image = directory.resolve("logo.jpg");
+        ImageIO.write(new BufferedImage(1200, 600, BufferedImage.TYPE_INT_RGB), "jpg", image.toFile());
+
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(CityLogoThumbnailService.createThumbnail(image, 100)));
+
+        assertThat(thumbnail.getWidth()).isEqualTo(100);
+        assertThat(thumbnail.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    void testCreateThumbnailDoesNotUpscale() throws Exception {
+        Path image = directory.resolve("logo.png");
+        ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB), "png", image.toFile());
+
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(CityLogoThumbnailService.createThumbnail(image, 100)));
+
+        assertThat(thumbnail.getWidth()).isEqualTo(40);
+        assertThat(thumbnail.getHeight()).isEqualTo(30);
+    }
+
+    @Test
+    void testCreateThumbnailOfUnsupportedContent() throws Exception {
+        Path file = Files.write(directory.resolve("logo.svg"), "<svg/>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(CityLogoThumbnailService.createThumbnail(file, 100)).isNull();
+    }
+}
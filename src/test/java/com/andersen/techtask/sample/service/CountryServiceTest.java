@@ -0,0 +1,97 @@
+package com.andersen.techtask.sample.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andersen.techtask.sample.domain.CountryChangedEvent;
+import com.andersen.techtask.sample.repository.CountryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class CountryServiceTest {
+
+    private CountryRepository countryRepository;
+
+    private CountryService countryService;
+
+    @BeforeEach
+    public void setup() {
+        countryRepository = Mockito.mock(CountryRepository.class);
+        when(countryRepository.findAllIdAndName())
+            .thenReturn(Arrays.asList(country(1L, "Côte d'Ivoire"), country(2L, "Costa Rica"), country(3L, "France")));
+        countryService = new CountryService(countryRepository, new ObjectMapper());
+    }
+
+    @Test
+    void testFindIdsByNameContainingIgnoresCaseAndAccents() {
+        assertThat(countryService.findIdsByNameContaining("CO")).containsExactly(1L, 2L);
+        assertThat(countryService.findIdsByNameContaining("cote d")).containsExactly(1L);
+        assertThat(countryService.findIdsByNameContaining("germany")).isEmpty();
+    }
+
+    @Test
+    void testExistsById() {
+        assertThat(countryService.existsById(2L)).isTrue();
+        assertThat(countryService.existsById(4L)).isFalse();
+        assertThat(countryService.existsById(null)).isFalse();
+    }
+
+    @Test
+    void testCountriesAreLoadedOnce() {
+        countryService.findIdsByNameContaining("france");
+        countryService.findIdsByNameContaining("costa");
+
+        verify(countryRepository, times(1)).findAllIdAndName();
+    }
+
+    @Test
+    void testFindAllSerialized() {
+        CountryService.SerializedCountries countries = countryService.findAllSerialized();
+
+        assertThat(new String(countries.getJson(), StandardCharsets.UTF_8))
+            .isEqualTo("[{\"id\":1,\"name\":\"Côte d'Ivoire\"},{\"id\":2,\"name\":\"Costa Rica\"},{\"id\":3,\"name\":\"France\"}]");
+        assertThat(countries.getETag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void testChangeReplacesSnapshot() {
+        CountryService.SerializedCountries before = countryService.findAllSerialized();
+        when(countryRepository.findAllIdAndName()).thenReturn(Arrays.asList(country(3L, "France")));
+
+        countryService.onCountryChanged(new CountryChangedEvent(1L));
+
+        CountryService.SerializedCountries after = countryService.findAllSerialized();
+        assertThat(after.getETag()).isNotEqualTo(before.getETag());
+        assertThat(new String(after.getJson(), StandardCharsets.UTF_8)).isEqualTo("[{\"id\":3,\"name\":\"France\"}]");
+        assertThat(countryService.findIdsByNameContaining("co")).isEmpty();
+    }
+
+    @Test
+    void testRefreshReloadsCountries() {
+        countryService.findIdsByNameContaining("france");
+        countryService.refresh();
+        countryService.findIdsByNameContaining("france");
+
+        verify(countryRepository, times(2)).findAllIdAndName();
+    }
+
+    private static CountryRepository.IdAndName country(Long id, String name) {
+        return new CountryRepository.IdAndName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.andersen.techtask.sample.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CityNameIndexTest {
+
+    private CityNameIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new CityNameIndex();
+        index.put(1L, "Saint-Étienne");
+        index.put(2L, "Paris");
+        index.put(3L, "Comparis");
+        index.put(4L, "Le Parisien");
+        index.put(5L, "Parisot");
+    }
+
+    @Test
+    void testSearchOrdersByRelevance() {
+        assertThat(index.search("paris", 10)).containsExactly(2L, 5L, 4L, 3L);
+    }
+
+    @Test
+    void testSearchIgnoresCaseAndAccents() {
+        assertThat(index.search("ETIENNE", 10)).containsExactly(1L);
+        assertThat(index.search("saint étienne", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void testSearchIsLimited() {
+        assertThat(index.search("paris", 2)).containsExactly(2L, 5L);
+    }
+
+    @Test
+    void testShortQueryMatchesWordPrefixes() {
+        assertThat(index.search("pa", 10)).containsExactly(2L, 5L, 4L);
+        assertThat(index.search("e", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void testSearchChecksCandidates() {
+        index.put(6L, "Abcd Bcde");
+
+        // All the trigrams of "abcde" are in the name, but not the name itself
+        assertThat(index.search("abcde", 10)).isEmpty();
+    }
+
+    @Test
+    void testRenameReplacesPreviousName() {
+        index.put(2L, "Lutèce");
+
+        assertThat(index.search("paris", 10)).containsExactly(5L, 4L, 3L);
+        assertThat(index.search("lutece", 10)).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void testNullNameRemovesCity() {
+        index.put(2L, null);
+
+        assertThat(index.search("paris", 10)).doesNotContain(2L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+}
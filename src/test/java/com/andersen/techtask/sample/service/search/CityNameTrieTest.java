@@ -0,0 +1,63 @@
+package com.andersen.techtask.sample.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CityNameTrieTest {
+
+    private CityNameTrie trie;
+
+    @BeforeEach
+    public void setup() {
+        trie = new CityNameTrie();
+        trie.put(1L, "Montréal");
+        trie.put(2L, "Moscow");
+        trie.put(3L, "Monaco");
+        trie.put(4L, "Mons");
+        trie.put(5L, "Milan");
+        trie.put(6L, "Montpellier");
+    }
+
+    @Test
+    void testSuggestShortestNamesFirst() {
+        assertThat(trie.suggest("mo", 10)).containsExactly(4L, 3L, 2L, 1L, 6L);
+    }
+
+    @Test
+    void testSuggestIgnoresCaseAndAccents() {
+        assertThat(trie.suggest("MONTRÉ", 10)).containsExactly(1L);
+        assertThat(trie.suggest("montre", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void testSuggestWithinEdge() {
+        // "montpellier" and "montreal" share the "mont" edge
+        assertThat(trie.suggest("mon", 10)).containsExactly(4L, 3L, 1L, 6L);
+        assertThat(trie.suggest("montp", 10)).containsExactly(6L);
+        assertThat(trie.suggest("montx", 10)).isEmpty();
+    }
+
+    @Test
+    void testSuggestIsLimited() {
+        assertThat(trie.suggest("m", 2)).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void testSameNameForSeveralCities() {
+        trie.put(7L, "Mons");
+
+        assertThat(trie.suggest("mons", 10)).containsExactlyInAnyOrder(4L, 7L);
+    }
+
+    @Test
+    void testRenameAndRemove() {
+        trie.put(4L, "Namur");
+        trie.put(3L, null);
+
+        assertThat(trie.suggest("mo", 10)).containsExactly(2L, 1L, 6L);
+        assertThat(trie.suggest("na", 10)).containsExactly(4L);
+        assertThat(trie.size()).isEqualTo(5);
+    }
+}
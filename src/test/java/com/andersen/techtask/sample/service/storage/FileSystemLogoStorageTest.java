@@ -0,0 +1,141 @@
+package com.andersen.techtask.sample.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.andersen.techtask.sample.config.ApplicationProperties;
+import com.andersen.techtask.sample.repository.LogoBlobRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class FileSystemLogoStorageTest {
+
+    private static final byte[] CONTENT = "logo content".getBytes(StandardCharsets.UTF_8);
+    private static final String SHA256 = "a3f1c0ffee0000000000000000000000000000000000000000000000000000ab";
+
+    @TempDir
+    Path root;
+
+    private LogoBlobRepository logoBlobRepository;
+    private DatabaseLogoStorage databaseLogoStorage;
+    private FileSystemLogoStorage logoStorage;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getLogo().setStorageDirectory(root.toString());
+        logoBlobRepository = mock(LogoBlobRepository.class);
+        databaseLogoStorage = mock(DatabaseLogoStorage.class);
+        logoStorage = new FileSystemLogoStorage(applicationProperties, logoBlobRepository, databaseLogoStorage, mock(TransactionTemplate.class));
+    }
+
+    @Test
+    void testStoreWritesContentOnce() throws Exception {
+        InputStreamSource source = spy(new CountingSource());
+        when(logoBlobRepository.insertOrRetain(SHA256, CONTENT.length)).thenReturn(1, 2);
+
+        logoStorage.store(SHA256, CONTENT.length, source);
+        logoStorage.store(SHA256, CONTENT.length, source);
+
+        Path path = root.resolve("a3").resolve("f1").resolve(SHA256);
+        assertThat(Files.readAllBytes(path)).isEqualTo(CONTENT);
+        verify(source, times(1)).getInputStream();
+        verify(logoBlobRepository, times(2)).insertOrRetain(SHA256, CONTENT.length);
+    }
+
+    @Test
+    void testStoreMovesFileInPlaceOnCommit() throws Exception {
+        when(logoBlobRepository.insertOrRetain(SHA256, CONTENT.length)).thenReturn(1);
+        Path path = root.resolve("a3").resolve("f1").resolve(SHA256);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            logoStorage.store(SHA256, CONTENT.length, new CountingSource());
+            assertThat(path).doesNotExist();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+            TransactionSynchronizationManager
+                .getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(Files.readAllBytes(path)).isEqualTo(CONTENT);
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertThat(files).containsExactly(path);
+        }
+    }
+
+    @Test
+    void testStoreLeavesNoFileOnRollback() throws Exception {
+        when(logoBlobRepository.insertOrRetain(SHA256, CONTENT.length)).thenReturn(1);
+        Path path = root.resolve("a3").resolve("f1").resolve(SHA256);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            logoStorage.store(SHA256, CONTENT.length, new CountingSource());
+
+            TransactionSynchronizationManager
+                .getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void testCopyToRange() throws Exception {
+        when(logoBlobRepository.insertOrRetain(SHA256, CONTENT.length)).thenReturn(1);
+        logoStorage.store(SHA256, CONTENT.length, new CountingSource());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        logoStorage.copyTo(SHA256, 5, 7, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("content");
+    }
+
+    @Test
+    void testCopyToFallsBackToDatabase() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        logoStorage.copyTo(SHA256, 0, CONTENT.length, out);
+
+        verify(databaseLogoStorage).copyTo(SHA256, 0, CONTENT.length, out);
+    }
+
+    @Test
+    void testPurgeOnlyDeletesUnreferencedContent() throws Exception {
+        when(logoBlobRepository.insertOrRetain(SHA256, CONTENT.length)).thenReturn(1);
+        logoStorage.store(SHA256, CONTENT.length, new CountingSource());
+        Path path = root.resolve("a3").resolve("f1").resolve(SHA256);
+
+        when(logoBlobRepository.deleteUnreferenced(SHA256)).thenReturn(0);
+        assertThat(logoStorage.purge(SHA256)).isFalse();
+        assertThat(path).exists();
+
+        when(logoBlobRepository.deleteUnreferenced(SHA256)).thenReturn(1);
+        assertThat(logoStorage.purge(SHA256)).isTrue();
+        assertThat(path).doesNotExist();
+    }
+
+    private static class CountingSource implements InputStreamSource {
+
+        @Override
+        public ByteArrayInputStream getInputStream() {
+            return new ByteArrayInputStream(CONTENT);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.andersen.techtask.sample.web.rest;
+
+import com.andersen.techtask.sample.IntegrationTest;
+import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.domain.CityLogo;
+import com.andersen.techtask.sample.domain.LogoBlob;
+import com.andersen.techtask.sample.repository.CityLogoRepository;
+import com.andersen.techtask.sample.repository.CityRepository;
+import com.andersen.techtask.sample.repository.LogoBlobRepository;
+import com.andersen.techtask.sample.security.AuthoritiesConstants;
+import com.andersen.techtask.sample.service.CityLogoService;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link CityLogoResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CityLogoResourceIT {
+
+    private static final byte[] DEFAULT_DATA = "not really a png".getBytes(StandardCharsets.UTF_8);
+    private static final String DEFAULT_SHA256 = "0d7fb3b6c1d4c0d3c4b4e0f3b9c3b6c6f0b4c1c5d3a2e1f0b9c8d7e6f5a4b3c2";
+
+    private static final byte[] THUMBNAIL_DATA = "not really a thumbnail".getBytes(StandardCharsets.UTF_8);
+    private static final String THUMBNAIL_SHA256 = "5a1e0c7b8d9f6e4a3b2c1d0e9f8a7b6c5d4e3f2a1b0c9d8e7f6a5b4c3d2e1f0a";
+
+    private static final String ENTITY_API_URL = "/api/cities/{id}/logo";
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private CityLogoRepository cityLogoRepository;
+
+    @Autowired
+    private LogoBlobRepository logoBlobRepository;
+
+    @Autowired
+    private CityLogoService cityLogoService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restCityLogoMockMvc;
+
+    private City city;
+
+    @BeforeEach
+    public void initTest() {
+        city = CityResourceIT.createEntity(em);
+    }
+
+    private void persistLogo() {
+        persistLogo(false);
+    }
+
+    private void persistLogo(boolean withThumbnail) {
+        cityRepository.saveAndFlush(city);
+        persistBlob(DEFAULT_SHA256, DEFAULT_DATA);
+        CityLogo logo = new CityLogo().city(city);
+        logo.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        logo.setSize((long) DEFAULT_DATA.length);
+        logo.setSha256(DEFAULT_SHA256);
+        if (withThumbnail) {
+            persistBlob(THUMBNAIL_SHA256, THUMBNAIL_DATA);
+            logo.setThumbnailSha256(THUMBNAIL_SHA256);
+            logo.setThumbnailSize((long) THUMBNAIL_DATA.length);
+        }
+        cityLogoRepository.saveAndFlush(logo);
+        em.clear();
+    }
+
+    private void persistBlob(String sha256, byte[] data) {
+        LogoBlob blob = new LogoBlob(sha256, data.length);
+        blob.setData(BlobProxy.generateProxy(data));
+        logoBlobRepository.saveAndFlush(blob);
+    }
+
+    @Test
+    @Transactional
+    void getCityLogo() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc
+            .perform(get(ENTITY_API_URL, city.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + DEFAULT_SHA256 + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andExpect(content().bytes(DEFAULT_DATA));
+    }
+
+    @Test
+    @Transactional
+    void getVersionedCityLogoIsCacheable() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc
+            .perform(get(ENTITY_API_URL + "?v=" + DEFAULT_SHA256, city.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public"));
+    }
+
+    @Test
+    @Transactional
+    void getCityLogoNotModified() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc
+            .perform(get(ENTITY_API_URL, city.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + DEFAULT_SHA256 + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @Transactional
+    void getCityLogoRange() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc
+            .perform(get(ENTITY_API_URL, city.getId()).header(HttpHeaders.RANGE, "bytes=4-9"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 4-9/" + DEFAULT_DATA.length))
+            .andExpect(content().bytes(Arrays.copyOfRange(DEFAULT_DATA, 4, 10)));
+    }
+
+    @Test
+    @Transactional
+    void getCityLogoUnsatisfiableRange() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc
+            .perform(get(ENTITY_API_URL, city.getId()).header(HttpHeaders.RANGE, "bytes=1000-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    @Transactional
+    void getCityLogoThumbnail() throws Exception {
+        persistLogo(true);
+
+        restCityLogoMockMvc
+            .perform(get(ENTITY_API_URL + "?size=thumb&v=" + DEFAULT_SHA256, city.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_PNG))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + THUMBNAIL_SHA256 + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public"))
+            .andExpect(content().bytes(THUMBNAIL_DATA));
+    }
+
+    @Test
+    @Transactional
+    void getMissingCityLogoThumbnailServesOriginal() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc
+            .perform(get(ENTITY_API_URL + "?size=thumb&v=" + DEFAULT_SHA256, city.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andExpect(content().bytes(DEFAULT_DATA));
+    }
+
+    @Test
+    @Transactional
+    @WithUnauthenticatedMockUser
+    void getVersionedCityLogoAnonymously() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc
+            .perform(get(ENTITY_API_URL + "?v=" + DEFAULT_SHA256, city.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public"))
+            .andExpect(content().bytes(DEFAULT_DATA));
+    }
+
+    @Test
+    @Transactional
+    @WithUnauthenticatedMockUser
+    void getUnversionedCityLogoAnonymously() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc.perform(get(ENTITY_API_URL, city.getId())).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    @WithUnauthenticatedMockUser
+    void getStaleVersionOfCityLogoAnonymously() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc.perform(get(ENTITY_API_URL + "?v=" + THUMBNAIL_SHA256, city.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getCityLogoUnsupportedSize() throws Exception {
+        persistLogo();
+
+        restCityLogoMockMvc.perform(get(ENTITY_API_URL + "?size=huge", city.getId())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingCityLogo() throws Exception {
+        restCityLogoMockMvc.perform(get(ENTITY_API_URL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.EDITOR)
+    void uploadCityLogoBeyondConcurrentUploads() throws Exception {
+        cityRepository.saveAndFlush(city);
+        MockMultipartFile logo = new MockMultipartFile("logo", "logo.jpg", MediaType.IMAGE_JPEG_VALUE, DEFAULT_DATA);
+
+        // Hold every upload permit of this node, as concurrent uploads would
+        Semaphore uploadPermits = (Semaphore) ReflectionTestUtils.getField(AopTestUtils.getTargetObject(cityLogoService), "uploadPermits");
+        int held = uploadPermits.drainPermits();
+        try {
+            restCityLogoMockMvc
+                .perform(multipart(HttpMethod.PATCH, "/api/cities/{id}", city.getId()).file(logo).param("id", city.getId().toString()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            uploadPermits.release(held);
+        }
+        assertThat(cityLogoRepository.findById(city.getId())).isEmpty();
+    }
+}
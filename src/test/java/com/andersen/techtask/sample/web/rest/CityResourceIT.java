@@ -2,7 +2,19 @@ package com.andersen.techtask.sample.web.rest;
 
 import com.andersen.techtask.sample.IntegrationTest;
 import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.domain.CityLogo;
+import com.andersen.techtask.sample.domain.Country;
+import com.andersen.techtask.sample.domain.CountryStats;
+import com.andersen.techtask.sample.repository.CityLogoRepository;
 import com.andersen.techtask.sample.repository.CityRepository;
+import com.andersen.techtask.sample.repository.CitySummary;
+import com.andersen.techtask.sample.repository.CountryStatsRepository;
+import com.andersen.techtask.sample.repository.LogoBlobRepository;
+import com.andersen.techtask.sample.security.AuthoritiesConstants;
+import com.andersen.techtask.sample.service.CityChangedEvent;
+import com.andersen.techtask.sample.service.CountryService;
+import com.andersen.techtask.sample.service.search.CityNameSearchService;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,15 +22,26 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
@@ -36,6 +59,8 @@ class CityResourceIT {
     private static final String DEFAULT_NAME = "CityName";
     private static final String UPDATED_NAME = "CityNameUpdated";
 
+    private static final byte[] LOGO_DATA = "not really a jpeg".getBytes(StandardCharsets.UTF_8);
+
     private static final String ENTITY_API_URL = "/api/cities";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
@@ -48,6 +73,21 @@ class CityResourceIT {
     @Mock
     private CityRepository cityRepositoryMock;
 
+    @Autowired
+    private CityNameSearchService cityNameSearchService;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryStatsRepository countryStatsRepository;
+
+    @Autowired
+    private CityLogoRepository cityLogoRepository;
+
+    @Autowired
+    private LogoBlobRepository logoBlobRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -80,6 +120,12 @@ class CityResourceIT {
         return city;
     }
 
+    private static City cityNamed(String name) {
+        City city = new City();
+        city.setName(name);
+        return city;
+    }
+
     @BeforeEach
     public void initTest() {
         city = createEntity(em);
@@ -101,6 +147,21 @@ class CityResourceIT {
         assertThat(testCity.getName()).isEqualTo(DEFAULT_NAME);
     }
 
+    @Test
+    @Transactional
+    void createCitiesWithIdsFromSequence() throws Exception {
+        long maxIdBefore = em.createQuery("select coalesce(max(c.id), 0L) from City c", Long.class).getSingleResult();
+
+        City first = cityRepository.saveAndFlush(createEntity(em));
+        City second = cityRepository.saveAndFlush(createUpdatedEntity(em));
+
+        assertThat(first.getId()).isGreaterThan(maxIdBefore);
+        assertThat(second.getId()).isEqualTo(first.getId() + 1);
+        // Both ids come from the block already reserved in city_sequence
+        Number nextVal = (Number) em.createNativeQuery("select next_val from city_sequence").getSingleResult();
+        assertThat(nextVal.longValue()).isGreaterThan(second.getId());
+    }
+
     @Test
     @Transactional
     void getAllCities() throws Exception {
@@ -116,6 +177,202 @@ class CityResourceIT {
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
     }
 
+    @Test
+    @Transactional
+    void getAllCitiesWithCountry() throws Exception {
+        // Initialize the database
+        Country country = new Country().name("CountryName");
+        em.persist(country);
+        cityRepository.saveAndFlush(city.country(country));
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=country.name,asc&sort=id"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].countryId").value(hasItem(country.getId().intValue())))
+            .andExpect(jsonPath("$.[*].countryName").value(hasItem("CountryName")))
+            .andExpect(jsonPath("$.[*].country").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getCitiesByKeyset() throws Exception {
+        // Initialize the database
+        City other = createUpdatedEntity(em);
+        cityRepository.saveAndFlush(city);
+        cityRepository.saveAndFlush(other);
+
+        // Follow the next links through all the pages
+        List<String> names = new ArrayList<>();
+        String url = ENTITY_API_URL + "?after=&size=1&sort=name";
+        while (url != null) {
+            MvcResult page = restCityMockMvc
+                .perform(get(URI.create(url)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andReturn();
+            names.addAll(JsonPath.read(page.getResponse().getContentAsString(), "$.[*].name"));
+            String link = page.getResponse().getHeader(HttpHeaders.LINK);
+            url = link != null ? link.substring(link.indexOf("/api/"), link.indexOf('>')) : null;
+        }
+        assertThat(names).containsSubsequence(DEFAULT_NAME, UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getCitiesByKeysetWithInvalidCursor() throws Exception {
+        restCityMockMvc.perform(get(ENTITY_API_URL + "?after=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void searchCitiesByName() throws Exception {
+        // Initialize the database, the test transaction is never committed so the index is updated directly
+        cityRepository.saveAndFlush(city);
+        cityNameSearchService.onCityChanged(new CityChangedEvent(city.getId(), city.getName()));
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "/searchByName?name=ityname"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(city.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+    }
+
+    @Test
+    @Transactional
+    void searchCitiesByNameIsSliced() throws Exception {
+        // Initialize the database, the test transaction is never committed so the index is updated directly
+        City other = createUpdatedEntity(em);
+        cityRepository.saveAndFlush(city);
+        cityRepository.saveAndFlush(other);
+        cityNameSearchService.onCityChanged(new CityChangedEvent(city.getId(), city.getName()));
+        cityNameSearchService.onCityChanged(new CityChangedEvent(other.getId(), other.getName()));
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "/searchByName?name=citynameupdated&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "/searchByName?name=cityname&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(city.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, org.hamcrest.Matchers.containsString("page=1&size=1>; rel=\"next\"")));
+    }
+
+    @Test
+    @Transactional
+    void suggestCities() throws Exception {
+        // Initialize the database, the test transaction is never committed so the trie is updated directly
+        City longer = createUpdatedEntity(em);
+        cityRepository.saveAndFlush(longer);
+        cityRepository.saveAndFlush(city);
+        cityNameSearchService.onCityChanged(new CityChangedEvent(longer.getId(), longer.getName()));
+        cityNameSearchService.onCityChanged(new CityChangedEvent(city.getId(), city.getName()));
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "/suggest?prefix=cityn&limit=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(city.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[1].id").value(longer.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void suggestCitiesWithZeroLimit() throws Exception {
+        // Initialize the database
+        cityRepository.saveAndFlush(city);
+        cityNameSearchService.onCityChanged(new CityChangedEvent(city.getId(), city.getName()));
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "/suggest?prefix=cityn&limit=0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void searchCitiesByNameInDatabaseMatchesWildcardsLiterally() {
+        // Initialize the database, each city only matching the search of the other one as a wildcard
+        City percent = cityRepository.saveAndFlush(cityNamed("100% CityName"));
+        City noPercent = cityRepository.saveAndFlush(cityNamed("100 CityName"));
+        City underscore = cityRepository.saveAndFlush(cityNamed("City_Name"));
+        City noUnderscore = cityRepository.saveAndFlush(cityNamed("CityXName"));
+
+        // The query used while the index isn't loaded
+        assertThat(cityRepository.findSummariesByNameContainingIgnoreCase("0% city", PageRequest.of(0, 10)))
+            .extracting(CitySummary::getId)
+            .contains(percent.getId())
+            .doesNotContain(noPercent.getId());
+        assertThat(cityRepository.findSummariesByNameContainingIgnoreCase("y_n", PageRequest.of(0, 10)))
+            .extracting(CitySummary::getId)
+            .contains(underscore.getId())
+            .doesNotContain(noUnderscore.getId());
+    }
+
+    @Test
+    @Transactional
+    void suggestCitiesInDatabaseMatchesWildcardsLiterally() {
+        // Initialize the database, each city only matching the prefix of the other one as a wildcard
+        City percent = cityRepository.saveAndFlush(cityNamed("100% CityName"));
+        City noPercent = cityRepository.saveAndFlush(cityNamed("1000 CityName"));
+        City underscore = cityRepository.saveAndFlush(cityNamed("City_Name"));
+        City noUnderscore = cityRepository.saveAndFlush(cityNamed("CityXName"));
+
+        // The query used while the trie isn't loaded
+        assertThat(cityRepository.findSummariesByNameStartingWith("100%", PageRequest.of(0, 10)))
+            .extracting(CitySummary::getId)
+            .contains(percent.getId())
+            .doesNotContain(noPercent.getId());
+        assertThat(cityRepository.findSummariesByNameStartingWith("City_", PageRequest.of(0, 10)))
+            .extracting(CitySummary::getId)
+            .contains(underscore.getId())
+            .doesNotContain(noUnderscore.getId());
+    }
+
+    @Test
+    @Transactional
+    void searchCitiesByCountryName() throws Exception {
+        // Initialize the database
+        Country country = new Country().name("CountryName");
+        em.persist(country);
+        cityRepository.saveAndFlush(city.country(country));
+        countryService.refresh();
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "/searchByCountryName?countryName=countryn"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(city.getId().intValue())))
+            .andExpect(jsonPath("$.[*].countryName").value(hasItem("CountryName")));
+    }
+
+    @Test
+    @Transactional
+    void searchCitiesByCountryNameIgnoresAccents() throws Exception {
+        // Initialize the database
+        Country country = new Country().name("Côte d'Ivoire");
+        em.persist(country);
+        cityRepository.saveAndFlush(city.country(country));
+        countryService.refresh();
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "/searchByCountryName?countryName=COTE D"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(city.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void searchCitiesByUnknownCountryName() throws Exception {
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "/searchByCountryName?countryName=nowhere-at-all"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     void getCity() throws Exception {
@@ -131,6 +388,78 @@ class CityResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
 
+    @Test
+    @Transactional
+    void getCityNotModified() throws Exception {
+        // Initialize the database
+        cityRepository.saveAndFlush(city);
+
+        String eTag = restCityMockMvc
+            .perform(get(ENTITY_API_URL_ID, city.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL_ID, city.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getCityModifiedByCountryRename() throws Exception {
+        // Initialize the database
+        Country country = new Country().name("CountryName");
+        em.persist(country);
+        cityRepository.saveAndFlush(city.country(country));
+
+        String eTag = restCityMockMvc
+            .perform(get(ENTITY_API_URL_ID, city.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        country.setName("OtherCountryName");
+        em.flush();
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL_ID, city.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.country.name").value("OtherCountryName"));
+
+        // The city itself wasn't modified, but its body was
+        HttpHeaders ifModifiedSince = new HttpHeaders();
+        ifModifiedSince.setIfModifiedSince(ZonedDateTime.now().plusDays(1));
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL_ID, city.getId()).headers(ifModifiedSince))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.country.name").value("OtherCountryName"));
+    }
+
+    @Test
+    @Transactional
+    void getAllCitiesNotModified() throws Exception {
+        // Initialize the database
+        cityRepository.saveAndFlush(city);
+
+        String eTag = restCityMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/");
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
     @Test
     @Transactional
     void getNonExistingCity() throws Exception {
@@ -138,6 +467,47 @@ class CityResourceIT {
         restCityMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getCitiesByIds() throws Exception {
+        // Initialize the database
+        cityRepository.saveAndFlush(city);
+        City other = new City();
+        other.setName(UPDATED_NAME);
+        cityRepository.saveAndFlush(other);
+
+        // Get the cities in the requested order, skipping unknown and repeated ids
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "?ids={ids}", other.getId() + "," + Long.MAX_VALUE + "," + city.getId() + "," + other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(other.getId().intValue()))
+            .andExpect(jsonPath("$[0].name").value(UPDATED_NAME))
+            .andExpect(jsonPath("$[1].id").value(city.getId().intValue()))
+            .andExpect(jsonPath("$[1].name").value(DEFAULT_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getCitiesByTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        restCityMockMvc.perform(get(ENTITY_API_URL + "?ids={ids}", ids)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getCitiesByMaxIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 100).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        restCityMockMvc.perform(get(ENTITY_API_URL + "?ids={ids}", ids)).andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void getCitiesByInvalidIds() throws Exception {
+        restCityMockMvc.perform(get(ENTITY_API_URL + "?ids={ids}", "1,a")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void putExistingCity() throws Exception {
@@ -222,4 +592,206 @@ class CityResourceIT {
         List<City> cityList = cityRepository.findAll();
         assertThat(cityList).hasSize(databaseSizeBeforeUpdate);
     }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void createCityCountsCountryCities() throws Exception {
+        Country country = new Country().name("CountryName");
+        em.persist(country);
+        em.flush();
+        em.clear();
+        countryService.refresh();
+
+        // The country is set by reference without being loaded, and only its id is returned
+        restCityMockMvc
+            .perform(multipart(ENTITY_API_URL).param("name", DEFAULT_NAME).param("country", country.getId().toString()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.country.id").value(country.getId().intValue()))
+            .andExpect(jsonPath("$.country.name").doesNotExist());
+
+        assertThat(countryStatsRepository.findById(country.getId())).get().extracting(CountryStats::getCityCount).isEqualTo(1L);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void createFirstCitiesOfCountryWithoutStats() throws Exception {
+        Country country = new Country().name("CountryName");
+        em.persist(country);
+        em.flush();
+        countryService.refresh();
+        assertThat(countryStatsRepository.findById(country.getId())).isEmpty();
+
+        // The first city inserts the stats row, the second one adds to it
+        restCityMockMvc
+            .perform(multipart(ENTITY_API_URL).param("name", DEFAULT_NAME).param("country", country.getId().toString()))
+            .andExpect(status().isCreated());
+        restCityMockMvc
+            .perform(multipart(ENTITY_API_URL).param("name", UPDATED_NAME).param("country", country.getId().toString()))
+            .andExpect(status().isCreated());
+
+        em.clear();
+        assertThat(countryStatsRepository.findById(country.getId())).get().extracting(CountryStats::getCityCount).isEqualTo(2L);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void createCityWithLogo() throws Exception {
+        MockMultipartFile logo = new MockMultipartFile("logo", "logo.jpg", MediaType.IMAGE_JPEG_VALUE, LOGO_DATA);
+
+        MvcResult result = restCityMockMvc
+            .perform(multipart(ENTITY_API_URL).file(logo).param("name", DEFAULT_NAME))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.logo").doesNotExist())
+            .andReturn();
+        long id = ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.id")).longValue();
+
+        // The logo is stored in its own row, keyed by the id of the city
+        em.clear();
+        CityLogo cityLogo = cityLogoRepository.findById(id).orElseThrow();
+        assertThat(cityLogo.getContentType()).isEqualTo(MediaType.IMAGE_JPEG_VALUE);
+        assertThat(cityLogo.getSize()).isEqualTo(LOGO_DATA.length);
+        assertThat(logoBlobRepository.findById(cityLogo.getSha256())).isPresent();
+
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL_ID, id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.logo").doesNotExist());
+        restCityMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].logoUrl").value(hasItem(ENTITY_API_URL + "/" + id + "/logo?v=" + cityLogo.getSha256())));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void createCityWithUnknownCountry() throws Exception {
+        int databaseSizeBeforeCreate = cityRepository.findAll().size();
+
+        restCityMockMvc
+            .perform(multipart(ENTITY_API_URL).param("name", DEFAULT_NAME).param("country", String.valueOf(Long.MAX_VALUE)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(cityRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.EDITOR)
+    void patchCityMovesCountryCities() throws Exception {
+        Country from = new Country().name("CountryName");
+        Country to = new Country().name("OtherCountryName");
+        em.persist(from);
+        em.persist(to);
+        countryStatsRepository.saveAndFlush(new CountryStats(from.getId(), 1));
+        cityRepository.saveAndFlush(city.country(from));
+        countryService.refresh();
+
+        restCityMockMvc
+            .perform(
+                multipart(HttpMethod.PATCH, ENTITY_API_URL_ID, city.getId())
+                    .param("id", city.getId().toString())
+                    .param("country", to.getId().toString())
+            )
+            .andExpect(status().isOk());
+
+        em.clear();
+        assertThat(countryStatsRepository.findById(from.getId())).get().extracting(CountryStats::getCityCount).isEqualTo(0L);
+        assertThat(countryStatsRepository.findById(to.getId())).get().extracting(CountryStats::getCityCount).isEqualTo(1L);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.EDITOR)
+    void patchCityWithIfMatch() throws Exception {
+        // Initialize the database
+        cityRepository.saveAndFlush(city);
+        String eTag = restCityMockMvc.perform(get(ENTITY_API_URL_ID, city.getId())).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String updatedETag = restCityMockMvc
+            .perform(
+                multipart(HttpMethod.PATCH, ENTITY_API_URL_ID, city.getId())
+                    .param("id", city.getId().toString())
+                    .param("name", UPDATED_NAME)
+                    .header(HttpHeaders.IF_MATCH, eTag)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotNull().isNotEqualTo(eTag);
+
+        // The previous entity tag is now stale
+        restCityMockMvc
+            .perform(
+                multipart(HttpMethod.PATCH, ENTITY_API_URL_ID, city.getId())
+                    .param("id", city.getId().toString())
+                    .param("name", DEFAULT_NAME)
+                    .header(HttpHeaders.IF_MATCH, eTag)
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        em.clear();
+        assertThat(cityRepository.findById(city.getId())).get().extracting(City::getName).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void deleteCity() throws Exception {
+        Country country = new Country().name("CountryName");
+        em.persist(country);
+        countryStatsRepository.saveAndFlush(new CountryStats(country.getId(), 1));
+        cityRepository.saveAndFlush(city.country(country));
+
+        restCityMockMvc.perform(delete(ENTITY_API_URL_ID, city.getId())).andExpect(status().isNoContent());
+
+        em.clear();
+        assertThat(cityRepository.findById(city.getId())).isEmpty();
+        assertThat(countryStatsRepository.findById(country.getId())).get().extracting(CountryStats::getCityCount).isEqualTo(0L);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void deleteNonExistingCity() throws Exception {
+        restCityMockMvc.perform(delete(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void importCitiesReportsFailures() throws Exception {
+        int databaseSizeBeforeImport = cityRepository.findAll().size();
+
+        restCityMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType("application/x-ndjson").content("{\"countryId\":1}\nnot json\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(0))
+            .andExpect(jsonPath("$.failed").value(2))
+            .andExpect(jsonPath("$.failures[0].line").value(1))
+            .andExpect(jsonPath("$.failures[0].message").value("Missing name"))
+            .andExpect(jsonPath("$.failures[1].line").value(2));
+
+        assertThat(cityRepository.findAll()).hasSize(databaseSizeBeforeImport);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void importCitiesWithUnsupportedContentType() throws Exception {
+        restCityMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.TEXT_PLAIN).content("name\nParis\n"))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @Transactional
+    void exportCitiesWithUnsupportedFormat() throws Exception {
+        restCityMockMvc.perform(get(ENTITY_API_URL + "/export?format=xml")).andExpect(status().isBadRequest());
+    }
 }
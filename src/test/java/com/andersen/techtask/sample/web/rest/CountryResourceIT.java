@@ -0,0 +1,159 @@
+package com.andersen.techtask.sample.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.andersen.techtask.sample.IntegrationTest;
+import com.andersen.techtask.sample.domain.City;
+import com.andersen.techtask.sample.domain.Country;
+import com.andersen.techtask.sample.domain.CountryStats;
+import com.andersen.techtask.sample.repository.CityRepository;
+import com.andersen.techtask.sample.repository.CountryStatsRepository;
+import com.andersen.techtask.sample.service.CountryService;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link CountryResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CountryResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/countries";
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private CountryStatsRepository countryStatsRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restCountryMockMvc;
+
+    @Test
+    @Transactional
+    void createCountriesWithIdsFromSequence() {
+        long maxIdBefore = em.createQuery("select coalesce(max(c.id), 0L) from Country c", Long.class).getSingleResult();
+
+        Country first = new Country().name("AAAAAAAAAA");
+        Country second = new Country().name("BBBBBBBBBB");
+        em.persist(first);
+        em.persist(second);
+        em.flush();
+
+        assertThat(first.getId()).isGreaterThan(maxIdBefore);
+        assertThat(second.getId()).isEqualTo(first.getId() + 1);
+        // Both ids come from the block already reserved in country_sequence
+        Number nextVal = (Number) em.createNativeQuery("select next_val from country_sequence").getSingleResult();
+        assertThat(nextVal.longValue()).isGreaterThan(second.getId());
+    }
+
+    @Test
+    @Transactional
+    void getAllCountries() throws Exception {
+        // Initialize the database
+        Country country = new Country().name("AAAAAAAAAA");
+        em.persist(country);
+        em.flush();
+        countryService.refresh();
+
+        restCountryMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.ETAG, countryService.findAllSerialized().getETag()))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(country.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem("AAAAAAAAAA")));
+    }
+
+    @Test
+    @Transactional
+    void getAllCountriesNotModified() throws Exception {
+        String etag = countryService.findAllSerialized().getETag();
+
+        restCountryMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @Transactional
+    void getAllCountriesModified() throws Exception {
+        String etag = countryService.findAllSerialized().getETag();
+        em.persist(new Country().name("BBBBBBBBBB"));
+        em.flush();
+        countryService.refresh();
+
+        restCountryMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem("BBBBBBBBBB")));
+    }
+
+    @Test
+    @Transactional
+    void getCountryCities() throws Exception {
+        // Initialize the database
+        Country country = new Country().name("AAAAAAAAAA");
+        em.persist(country);
+        City city = new City().country(country);
+        city.setName("CCCCCCCCCC");
+        cityRepository.saveAndFlush(city);
+        City other = new City();
+        other.setName("DDDDDDDDDD");
+        cityRepository.saveAndFlush(other);
+        countryService.refresh();
+
+        restCountryMockMvc
+            .perform(get(ENTITY_API_URL + "/{id}/cities?sort=id,desc", country.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[0].id").value(city.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value("CCCCCCCCCC"))
+            .andExpect(jsonPath("$.[0].countryName").value("AAAAAAAAAA"));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingCountryCities() throws Exception {
+        restCountryMockMvc.perform(get(ENTITY_API_URL + "/{id}/cities", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getAllCountryStats() throws Exception {
+        // Initialize the database
+        Country country = new Country().name("AAAAAAAAAA");
+        Country empty = new Country().name("BBBBBBBBBB");
+        em.persist(country);
+        em.persist(empty);
+        countryStatsRepository.saveAndFlush(new CountryStats(country.getId(), 2));
+
+        restCountryMockMvc
+            .perform(get(ENTITY_API_URL + "/stats"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$[?(@.countryId == " + country.getId() + ")].cityCount").value(2))
+            .andExpect(jsonPath("$[?(@.countryId == " + country.getId() + ")].countryName").value("AAAAAAAAAA"))
+            .andExpect(jsonPath("$[?(@.countryId == " + empty.getId() + ")].cityCount").value(0));
+    }
+}
@@ -1,5 +1,6 @@
 package com.andersen.techtask.sample.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -60,6 +62,31 @@ class UserJWTControllerIT {
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testAuthorizeUpgradesOutdatedPasswordHash() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-upgrade");
+        user.setEmail("user-jwt-controller-upgrade@example.com");
+        user.setActivated(true);
+        // Hashed before hashes were prefixed with their algorithm, with fewer rounds than configured
+        user.setPassword(new BCryptPasswordEncoder(4).encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-upgrade");
+        login.setPassword("test");
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk());
+
+        String upgraded = userRepository.findOneByLogin("user-jwt-controller-upgrade").orElseThrow().getPassword();
+        assertThat(upgraded).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches("test", upgraded)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(upgraded)).isFalse();
+    }
+
     @Test
     @Transactional
     void testAuthorizeWithRememberMe() throws Exception {